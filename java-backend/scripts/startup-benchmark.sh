@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request (JVM launch until /health-check answers) for the
+# packaged jar, first as a plain `java -jar` and then with Spring AOT + a CDS archive.
+# Run through `mvn -Pstartup verify -Dstartup.benchmark.skip=false` or directly with a jar path.
+set -euo pipefail
+
+JAR=${1:-target/java-backend-0.0.1-SNAPSHOT.jar}
+RUNS=${STARTUP_BENCHMARK_RUNS:-5}
+PORT=${STARTUP_BENCHMARK_PORT:-18080}
+WORK_DIR=$(dirname "$JAR")/startup-benchmark
+
+# Placeholder configuration so the context can refresh without real credentials.
+# No query reaches Mongo: index creation and the startup similarity-index load are switched
+# off, and the driver only opens its connection pool on first use.
+APP_ARGS=(
+  "--server.port=$PORT"
+  "--spring.data.mongodb.uri=mongodb://localhost:27017"
+  "--spring.data.mongodb.database=startup_benchmark"
+  "--spring.data.mongodb.auto-index-creation=false"
+  "--proposal.similarity.build-on-startup=false"
+  "--api.key=benchmark"
+  "--app.security.issuerSecretKey=SAAQCAIBAEAQCAIBAEAQCAIBAEAQCAIBAEAQCAIBAEAQCAIBAEAQC5MY"
+  "--mail.username=benchmark"
+  "--mail.password=benchmark"
+)
+
+time_to_first_request() {
+  local start end pid
+  start=$(date +%s%N)
+  java "$@" "${APP_ARGS[@]}" > "$WORK_DIR/app.log" 2>&1 &
+  pid=$!
+  until curl -sf "http://localhost:$PORT/health-check" > /dev/null; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "Application exited before serving a request, see $WORK_DIR/app.log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  end=$(date +%s%N)
+  kill "$pid" && wait "$pid" 2> /dev/null || true
+  echo $(( (end - start) / 1000000 ))
+}
+
+median() {
+  printf '%s\n' "$@" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+rm -rf "$WORK_DIR" && mkdir -p "$WORK_DIR"
+
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK_DIR/extracted" > /dev/null
+java -XX:ArchiveClassesAtExit="$WORK_DIR/app.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+  -jar "$WORK_DIR/extracted/$(basename "$JAR")" "${APP_ARGS[@]}" > "$WORK_DIR/training.log" 2>&1
+
+baseline=()
+optimized=()
+for _ in $(seq "$RUNS"); do
+  baseline+=("$(time_to_first_request -jar "$JAR")")
+  optimized+=("$(time_to_first_request -XX:SharedArchiveFile="$WORK_DIR/app.jsa" -Dspring.aot.enabled=true -jar "$WORK_DIR/extracted/$(basename "$JAR")")")
+done
+
+baseline_ms=$(median "${baseline[@]}")
+optimized_ms=$(median "${optimized[@]}")
+
+echo "Time to first request over $RUNS runs (median)"
+echo "  java -jar          : ${baseline_ms} ms   [${baseline[*]}]"
+echo "  AOT + CDS extracted: ${optimized_ms} ms   [${optimized[*]}]"
+echo "  improvement        : $(( baseline_ms - optimized_ms )) ms"
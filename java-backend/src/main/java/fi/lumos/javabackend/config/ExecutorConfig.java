@@ -0,0 +1,70 @@
+package fi.lumos.javabackend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Semaphore;
+
+// Executor for the blocking work that runs off the request thread: Groq evaluation batches. With
+// spring.threads.virtual.enabled=true on JDK 21+ (the same switch that moves Tomcat and @Scheduled
+// onto virtual threads) each task gets its own virtual thread and only the concurrency limit applies;
+// otherwise a fixed platform-thread pool is used. The mail executor is the reverse: see mailExecutor.
+// Not a default candidate: inject it by name, and Boot still creates applicationTaskExecutor for MVC async.
+
+@Configuration
+public class ExecutorConfig {
+
+    @Bean(defaultCandidate = false)
+    public AsyncTaskExecutor evaluationExecutor(Environment environment,
+                                                @Value("${app.executor.evaluation.pool-size}") int poolSize) {
+        return create("evaluation-", Threading.VIRTUAL.isActive(environment), poolSize);
+    }
+
+    // Jakarta Mail's SMTPTransport does its socket I/O inside synchronized methods, which pins a virtual
+    // thread to its carrier for the whole SMTP exchange (JDK 21-23). With virtual threads on, mail is sent
+    // from a small platform pool while the request thread parks; otherwise it is sent on the calling thread.
+    @Bean(defaultCandidate = false)
+    public TaskExecutor mailExecutor(Environment environment,
+                                     @Value("${app.executor.mail.pool-size}") int poolSize) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return create("mail-", false, poolSize);
+        }
+        return new SyncTaskExecutor();
+    }
+
+    public static AsyncTaskExecutor create(String threadNamePrefix, boolean virtual, int maxConcurrent) {
+        if (virtual) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            // Tasks start at once and wait on the semaphore, so submitting never blocks the caller while
+            // the number of simultaneous Groq calls stays the same as in platform mode
+            Semaphore permits = new Semaphore(maxConcurrent);
+            executor.setTaskDecorator(task -> () -> {
+                permits.acquireUninterruptibly();
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+            executor.setTaskTerminationTimeout(30_000);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,14 +1,23 @@
 package fi.lumos.javabackend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.Arrays;
+
 @Configuration
 public class GlobalCorsConfig implements WebMvcConfigurer {
 
+    // Comma-separated origin patterns; narrow this to the frontend's origin in production
+    @Value("${app.cors.allowed-origins}")
+    private String[] allowedOrigins;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
-        registry.addMapping("/**").allowedOriginPatterns("*").allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS").allowCredentials(true).allowedHeaders("*");
+        // Credentials are only allowed for explicitly listed origins, never for the '*' wildcard
+        boolean anyOrigin = Arrays.asList(allowedOrigins).contains("*");
+        registry.addMapping("/**").allowedOriginPatterns(allowedOrigins).allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS").allowCredentials(!anyOrigin).allowedHeaders("*");
     }
 }
@@ -0,0 +1,202 @@
+package fi.lumos.javabackend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fi.lumos.javabackend.utilites.TokenBucket;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Admission control for the expensive endpoints. Each client gets a token bucket per endpoint class,
+// and each class has a concurrency bulkhead; callers wait briefly for a slot and are shed with
+// 429 + Retry-After when the bucket is empty or the bulkhead stays full.
+
+@Component
+public class RateLimitingFilter extends OncePerRequestFilter {
+
+    public enum EndpointClass {
+        SUBMIT("/proposals/submit"),
+        EVALUATE("/evaluation/start"),
+        PAYOUT("/transaction/send");
+
+        private final String path;
+
+        EndpointClass(String path) {
+            this.path = path;
+        }
+    }
+
+    private final boolean enabled;
+    private final long queueTimeoutMs;
+    private final Map<EndpointClass, long[]> bucketLimits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Semaphore> bulkheads = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, AtomicLong> rateLimited = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, AtomicLong> bulkheadRejected = new EnumMap<>(EndpointClass.class);
+    private final Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(30))
+            .maximumSize(100_000)
+            .build();
+
+    public RateLimitingFilter(@Value("${app.ratelimit.enabled}") boolean enabled,
+                              @Value("${app.ratelimit.queue-timeout-ms}") long queueTimeoutMs,
+                              @Value("${app.ratelimit.submit.capacity}") long submitCapacity,
+                              @Value("${app.ratelimit.submit.refill-per-minute}") long submitRefill,
+                              @Value("${app.ratelimit.submit.max-concurrent}") int submitConcurrent,
+                              @Value("${app.ratelimit.evaluate.capacity}") long evaluateCapacity,
+                              @Value("${app.ratelimit.evaluate.refill-per-minute}") long evaluateRefill,
+                              @Value("${app.ratelimit.evaluate.max-concurrent}") int evaluateConcurrent,
+                              @Value("${app.ratelimit.payout.capacity}") long payoutCapacity,
+                              @Value("${app.ratelimit.payout.refill-per-minute}") long payoutRefill,
+                              @Value("${app.ratelimit.payout.max-concurrent}") int payoutConcurrent) {
+        this.enabled = enabled;
+        this.queueTimeoutMs = queueTimeoutMs;
+        configure(EndpointClass.SUBMIT, submitCapacity, submitRefill, submitConcurrent);
+        configure(EndpointClass.EVALUATE, evaluateCapacity, evaluateRefill, evaluateConcurrent);
+        configure(EndpointClass.PAYOUT, payoutCapacity, payoutRefill, payoutConcurrent);
+    }
+
+    private void configure(EndpointClass endpointClass, long capacity, long refillPerMinute, int maxConcurrent) {
+        bucketLimits.put(endpointClass, new long[]{capacity, refillPerMinute});
+        bulkheads.put(endpointClass, new Semaphore(maxConcurrent));
+        rateLimited.put(endpointClass, new AtomicLong());
+        bulkheadRejected.put(endpointClass, new AtomicLong());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || classify(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+
+        long[] limits = bucketLimits.get(endpointClass);
+        TokenBucket bucket = buckets.get(endpointClass + ":" + clientKey(request), key -> new TokenBucket(limits[0], limits[1]));
+        long waitNanos = bucket.tryConsume();
+        if (waitNanos > 0) {
+            rateLimited.get(endpointClass).incrementAndGet();
+            reject(response, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1, "Rate limit exceeded");
+            return;
+        }
+
+        Semaphore bulkhead = bulkheads.get(endpointClass);
+        try {
+            if (!bulkhead.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                bulkheadRejected.get(endpointClass).incrementAndGet();
+                reject(response, 1, "Server busy");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response, 1, "Server busy");
+            return;
+        }
+
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Reactive controllers finish after this thread returns; hold the slot until they do
+                request.getAsyncContext().addListener(new BulkheadReleaser(bulkhead));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("rateLimited", rateLimited.get(endpointClass).get());
+            entry.put("bulkheadRejected", bulkheadRejected.get(endpointClass).get());
+            entry.put("availableSlots", bulkheads.get(endpointClass).availablePermits());
+            stats.put(endpointClass.name(), entry);
+        }
+        return stats;
+    }
+
+    private EndpointClass classify(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+        // The decoded, normalised path the dispatcher maps, so ;params or %-escapes in the raw URI can't slip past
+        String path = request.getServletPath() + (request.getPathInfo() != null ? request.getPathInfo() : "");
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            if (endpointClass.path.equals(path)) {
+                return endpointClass;
+            }
+        }
+        return null;
+    }
+
+    // server.forward-headers-strategy=native makes this the real client address behind the load balancer,
+    // resolved by Tomcat from trusted proxies only, rather than trusting a client-supplied X-Forwarded-For here
+    private String clientKey(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+
+    private static class BulkheadReleaser implements AsyncListener {
+        private final Semaphore bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        BulkheadReleaser(Semaphore bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package fi.lumos.javabackend.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// The reactive Mongo starter is always on the classpath, so Boot would otherwise create a second
+// (reactive) MongoClient, its pool and the reactive repositories even when app.reactive.enabled=false.
+// Excludes that auto-configuration unless reactive mode is on, keeping any exclusions already configured.
+
+public class ReactiveModeEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    private static final String EXCLUDE = "spring.autoconfigure.exclude";
+
+    private static final List<String> REACTIVE_MONGO_AUTO_CONFIGURATIONS = List.of(
+            "org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration");
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (environment.getProperty("app.reactive.enabled", Boolean.class, false)) {
+            return;
+        }
+        List<String> exclusions = new ArrayList<>(Binder.get(environment).bind(EXCLUDE, Bindable.listOf(String.class)).orElse(List.of()));
+        REACTIVE_MONGO_AUTO_CONFIGURATIONS.stream().filter(name -> !exclusions.contains(name)).forEach(exclusions::add);
+        environment.getPropertySources().addFirst(new MapPropertySource("reactiveModeExclusions",
+                Map.of(EXCLUDE, String.join(",", exclusions))));
+    }
+}
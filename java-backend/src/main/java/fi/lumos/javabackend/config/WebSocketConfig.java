@@ -1,5 +1,6 @@
 package fi.lumos.javabackend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
@@ -10,14 +11,39 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    // With several instances, progress must go through an external STOMP broker (RabbitMQ, ActiveMQ)
+    // so a message sent on one node reaches subscribers connected to any node
+    @Value("${app.websocket.relay.enabled}")
+    private boolean relayEnabled;
+    @Value("${app.websocket.relay.host}")
+    private String relayHost;
+    @Value("${app.websocket.relay.port}")
+    private int relayPort;
+    @Value("${app.websocket.relay.login}")
+    private String relayLogin;
+    @Value("${app.websocket.relay.passcode}")
+    private String relayPasscode;
+    @Value("${app.cors.allowed-origins}")
+    private String[] allowedOrigins;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic"); // Broadcasts to clients
+        if (relayEnabled) {
+            config.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode);
+        } else {
+            config.enableSimpleBroker("/topic"); // Broadcasts to clients
+        }
         config.setApplicationDestinationPrefixes("/app"); // Messages sent from client
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
-        registry.addEndpoint("/ws-progress").setAllowedOriginPatterns("*").withSockJS();
+        registry.addEndpoint("/ws-progress").setAllowedOriginPatterns(allowedOrigins).withSockJS();
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,38 @@
 package fi.lumos.javabackend.controller;
 
 
+import fi.lumos.javabackend.config.RateLimitingFilter;
+import fi.lumos.javabackend.services.ProposalCache;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 public class HealthCheck {
 
+    @Autowired
+    private ProposalCache proposalCache;
+
+    @Autowired
+    private RateLimitingFilter rateLimitingFilter;
+
     @GetMapping("/health-check")
     public ResponseEntity<String> healthCheck() {
         return new ResponseEntity<>("The Server is up and running !", HttpStatus.OK);
     }
 
+    @GetMapping("/health-check/proposal-cache")
+    public ResponseEntity<Map<String, Object>> proposalCacheStats() {
+        return new ResponseEntity<>(proposalCache.stats(), HttpStatus.OK);
+    }
+
+    @GetMapping("/health-check/rate-limits")
+    public ResponseEntity<Map<String, Object>> rateLimitStats() {
+        return new ResponseEntity<>(rateLimitingFilter.stats(), HttpStatus.OK);
+    }
+
 }
@@ -0,0 +1,92 @@
+package fi.lumos.javabackend.controller;
+
+import fi.lumos.javabackend.services.JfrRecordingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.text.ParseException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/jfr")
+@ConditionalOnProperty(name = "app.jfr.admin.enabled", havingValue = "true")
+public class JfrAdminController {
+
+    @Autowired
+    private JfrRecordingService jfrRecordingService;
+
+    @Value("${app.jfr.admin.token}")
+    private String adminToken;
+
+    @GetMapping("/status")
+    public ResponseEntity<?> status(@RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (!authorized(token)) {
+            return forbidden();
+        }
+        return new ResponseEntity<>(jfrRecordingService.status(), HttpStatus.OK);
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<?> start(@RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (!authorized(token)) {
+            return forbidden();
+        }
+        try {
+            return new ResponseEntity<>(jfrRecordingService.start(), HttpStatus.OK);
+        } catch (IOException | ParseException e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Could not start recording: " + e.getMessage()));
+        }
+    }
+
+    // Streams the recording so far as a .jfr file for JDK Mission Control
+    @PostMapping("/dump")
+    public ResponseEntity<?> dump(@RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (!authorized(token)) {
+            return forbidden();
+        }
+        try {
+            Path file = jfrRecordingService.dump();
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                    .body((Resource) new FileSystemResource(file));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Could not dump recording: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<?> stop(@RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (!authorized(token)) {
+            return forbidden();
+        }
+        return new ResponseEntity<>(jfrRecordingService.stop(), HttpStatus.OK);
+    }
+
+    // Recordings expose internals of the running service, so the endpoints stay closed until a token is configured
+    private boolean authorized(String token) {
+        if (adminToken == null || adminToken.isBlank() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ResponseEntity<Map<String, String>> forbidden() {
+        return new ResponseEntity<>(Map.of("error", "Missing or invalid admin token"), HttpStatus.FORBIDDEN);
+    }
+}
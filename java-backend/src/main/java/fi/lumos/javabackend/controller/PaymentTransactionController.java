@@ -4,6 +4,7 @@ import fi.lumos.javabackend.dto.StellarTransaction;
 import fi.lumos.javabackend.dto.TransactionResponseDTO;
 import fi.lumos.javabackend.services.PaymentTransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 import java.io.IOException;
 
 @RestController
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "false", matchIfMissing = true)
 @RequestMapping("/transaction")
 public class PaymentTransactionController {
 
@@ -1,13 +1,18 @@
 package fi.lumos.javabackend.controller;
 
+import fi.lumos.javabackend.dto.ProposalSummaryDTO;
 import fi.lumos.javabackend.dto.RankedProposalDTO;
+import fi.lumos.javabackend.dto.RankedProposalSummaryDTO;
 import fi.lumos.javabackend.entity.Proposal;
 import fi.lumos.javabackend.entity.ProposalScore;
 import fi.lumos.javabackend.repository.ProposalRepository;
 import fi.lumos.javabackend.repository.ProposalScoreRepository;
+import fi.lumos.javabackend.services.ContinuousEvaluationService;
 import fi.lumos.javabackend.services.GroqEvaluation;
+import fi.lumos.javabackend.services.ProposalCache;
 import fi.lumos.javabackend.services.ProposalService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +23,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "false", matchIfMissing = true)
 @RequestMapping("/evaluation")
 public class ProposalEvaluationController {
 
@@ -33,6 +39,12 @@ public class ProposalEvaluationController {
     @Autowired
     private ProposalService proposalService;
 
+    @Autowired
+    private ProposalCache proposalCache;
+
+    @Autowired
+    private ContinuousEvaluationService continuousEvaluation;
+
 
     @PostMapping("/start")
     public ResponseEntity<String> evaluateAll() {
@@ -40,8 +52,16 @@ public class ProposalEvaluationController {
         if (proposals.isEmpty()) {
             return new ResponseEntity<>("No proposals found to evaluate.", HttpStatus.NO_CONTENT);
         }
+        proposalCache.putAll(proposals);
 
-        groqEvaluation.processProposals(proposals);
+        if (continuousEvaluation.isEnabled()) {
+            // Most proposals were scored during submission; only the stragglers are left
+            proposals = continuousEvaluation.withoutScores(proposals);
+        }
+
+        if (!groqEvaluation.processProposals(proposals)) {
+            return new ResponseEntity<>("An evaluation run is already in progress.", HttpStatus.CONFLICT);
+        }
         return new ResponseEntity<>("Evaluation started for " + proposals.size() + " proposals.", HttpStatus.ACCEPTED);
     }
 
@@ -59,11 +79,31 @@ public class ProposalEvaluationController {
 
         List<String> proposalIds = topScores.stream().map(ProposalScore::getProposalId).toList();
 
-        Map<String, Proposal> proposalMap = proposalRepository.findAllById(proposalIds).stream().collect(Collectors.toMap(Proposal::getId, Function.identity()));
+        Map<String, Proposal> proposalMap = proposalCache.findAllById(proposalIds).stream().collect(Collectors.toMap(Proposal::getId, Function.identity()));
 
         List<RankedProposalDTO> rankedProposals = topScores.stream().map(proposalScore -> new RankedProposalDTO(proposalScore.getRank(), proposalMap.get(proposalScore.getProposalId()), proposalScore.getScore())).toList();
 
         return new ResponseEntity<>(rankedProposals, HttpStatus.OK);
     }
 
+    // Leaderboard rows without the full proposal; fetch /proposals/{id} for details
+    @GetMapping("/rankings/top/summary")
+    public ResponseEntity<List<RankedProposalSummaryDTO>> getTopRankedSummaries(@RequestParam(defaultValue = "10") int limit) {
+
+        List<ProposalScore> topScores = proposalScoreRepository.findAllByOrderByRankAsc(PageRequest.of(0, limit));
+
+        List<String> proposalIds = topScores.stream().map(ProposalScore::getProposalId).toList();
+
+        Map<String, ProposalSummaryDTO> summaryMap = proposalRepository.findByIdIn(proposalIds).stream().collect(Collectors.toMap(ProposalSummaryDTO::getId, Function.identity()));
+
+        List<RankedProposalSummaryDTO> rankedSummaries = topScores.stream()
+                .filter(proposalScore -> summaryMap.containsKey(proposalScore.getProposalId()))
+                .map(proposalScore -> {
+                    ProposalSummaryDTO summary = summaryMap.get(proposalScore.getProposalId());
+                    return new RankedProposalSummaryDTO(proposalScore.getRank(), summary.getId(), summary.getProjectTitle(), summary.getBrief_summary(), proposalScore.getScore());
+                }).toList();
+
+        return new ResponseEntity<>(rankedSummaries, HttpStatus.OK);
+    }
+
 }
@@ -1,17 +1,23 @@
 package fi.lumos.javabackend.controller;
 
 import fi.lumos.javabackend.dto.ProposalRequestDto;
+import fi.lumos.javabackend.dto.ProposalSummaryDTO;
 import fi.lumos.javabackend.entity.Proposal;
 import fi.lumos.javabackend.repository.ProposalRepository;
 import fi.lumos.javabackend.services.ProposalService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 
 @RestController
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "false", matchIfMissing = true)
 @RequestMapping("/proposals")
 public class ProposalRequestsController {
 
@@ -33,4 +39,33 @@ public class ProposalRequestsController {
 
         return new ResponseEntity<>(proposalList, HttpStatus.OK);
     }
+
+    @GetMapping("/summaries")
+    public ResponseEntity<List<ProposalSummaryDTO>> getProposalSummaries() {
+        return new ResponseEntity<>(proposalService.getProposalSummaries(), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Proposal> getProposal(@PathVariable String id) {
+        return proposalService.getProposalById(id)
+                .map(proposal -> new ResponseEntity<>(proposal, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/status/{status}")
+    public ResponseEntity<Page<Proposal>> getProposalsByStatus(@PathVariable String status,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                               @RequestParam(defaultValue = "0") int page,
+                                                               @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Instant start = from != null ? from : Instant.EPOCH;
+        Instant end = to != null ? to : Instant.now();
+
+        Page<Proposal> proposals = proposalService.getProposalsByStatus(status, start, end, page, size);
+        return new ResponseEntity<>(proposals, HttpStatus.OK);
+    }
 }
@@ -0,0 +1,38 @@
+package fi.lumos.javabackend.controller;
+
+import fi.lumos.javabackend.dto.StellarTransaction;
+import fi.lumos.javabackend.dto.TransactionResponseDTO;
+import fi.lumos.javabackend.services.PaymentTransactionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@RestController
+@RequestMapping("/transaction")
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactivePaymentTransactionController {
+
+    @Autowired
+    PaymentTransactionService paymentTransactionService;
+
+    // The Stellar SDK and JavaMailSender only offer blocking calls, so they run on the
+    // bounded elastic scheduler and the servlet thread is released while they are in flight
+
+    @PostMapping("/send")
+    public Mono<ResponseEntity<TransactionResponseDTO>> sendXLM(@RequestBody StellarTransaction transactionDTO) {
+        return Mono.fromCallable(() -> paymentTransactionService.sendXlm(transactionDTO))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(responseDTO -> new ResponseEntity<>(responseDTO, HttpStatus.OK));
+    }
+
+    @GetMapping("/check-balance")
+    public Mono<String> checkBalance(@RequestParam String publicKey) {
+        return Mono.fromCallable(() -> paymentTransactionService.getWalletBalance(publicKey))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+}
@@ -0,0 +1,105 @@
+package fi.lumos.javabackend.controller;
+
+import fi.lumos.javabackend.dto.ProposalSummaryDTO;
+import fi.lumos.javabackend.dto.RankedProposalDTO;
+import fi.lumos.javabackend.dto.RankedProposalSummaryDTO;
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.entity.ProposalScore;
+import fi.lumos.javabackend.repository.reactive.ReactiveProposalRepository;
+import fi.lumos.javabackend.repository.reactive.ReactiveProposalScoreRepository;
+import fi.lumos.javabackend.services.ContinuousEvaluationService;
+import fi.lumos.javabackend.services.ReactiveGroqEvaluation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/evaluation")
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveProposalEvaluationController {
+
+    @Autowired
+    private ReactiveProposalRepository proposalRepository;
+
+    @Autowired
+    private ReactiveProposalScoreRepository proposalScoreRepository;
+
+    @Autowired
+    private ReactiveGroqEvaluation groqEvaluation;
+
+    @Autowired
+    private ContinuousEvaluationService continuousEvaluation;
+
+
+    @PostMapping("/start")
+    public Mono<ResponseEntity<String>> evaluateAll() {
+        return proposalRepository.findAll().collectList().flatMap(proposals -> {
+            if (proposals.isEmpty()) {
+                return Mono.just(new ResponseEntity<>("No proposals found to evaluate.", HttpStatus.NO_CONTENT));
+            }
+
+            return pending(proposals).map(toEvaluate -> {
+                if (!groqEvaluation.startRun(toEvaluate)) {
+                    return new ResponseEntity<>("An evaluation run is already in progress.", HttpStatus.CONFLICT);
+                }
+                return new ResponseEntity<>("Evaluation started for " + toEvaluate.size() + " proposals.", HttpStatus.ACCEPTED);
+            });
+        });
+    }
+
+
+    // Most proposals were scored during submission; only the stragglers are left. The lookup goes through the
+    // blocking score repository, so it runs off the event loop.
+    private Mono<List<Proposal>> pending(List<Proposal> proposals) {
+        if (!continuousEvaluation.isEnabled()) {
+            return Mono.just(proposals);
+        }
+        return Mono.fromCallable(() -> continuousEvaluation.withoutScores(proposals))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+
+    @GetMapping("/rankings/top")
+    public Mono<ResponseEntity<List<RankedProposalDTO>>> getTopRankedProposals(@RequestParam(defaultValue = "10") int limit) {
+
+        return proposalScoreRepository.findAllByOrderByRankAsc(PageRequest.of(0, limit)).collectList().flatMap(topScores -> {
+            List<String> proposalIds = topScores.stream().map(ProposalScore::getProposalId).toList();
+
+            return proposalRepository.findAllById(proposalIds)
+                    .collectMap(Proposal::getId, Function.identity())
+                    .map(proposalMap -> {
+                        List<RankedProposalDTO> rankedProposals = topScores.stream().map(proposalScore -> new RankedProposalDTO(proposalScore.getRank(), proposalMap.get(proposalScore.getProposalId()), proposalScore.getScore())).toList();
+                        return new ResponseEntity<>(rankedProposals, HttpStatus.OK);
+                    });
+        });
+    }
+
+    @GetMapping("/rankings/top/summary")
+    public Mono<ResponseEntity<List<RankedProposalSummaryDTO>>> getTopRankedSummaries(@RequestParam(defaultValue = "10") int limit) {
+
+        return proposalScoreRepository.findAllByOrderByRankAsc(PageRequest.of(0, limit)).collectList().flatMap(topScores -> {
+            List<String> proposalIds = topScores.stream().map(ProposalScore::getProposalId).toList();
+
+            return proposalRepository.findByIdIn(proposalIds)
+                    .collectMap(ProposalSummaryDTO::getId, Function.identity())
+                    .map(summaryMap -> {
+                        List<RankedProposalSummaryDTO> rankedSummaries = topScores.stream()
+                                .filter(proposalScore -> summaryMap.containsKey(proposalScore.getProposalId()))
+                                .map(proposalScore -> {
+                                    ProposalSummaryDTO summary = summaryMap.get(proposalScore.getProposalId());
+                                    return new RankedProposalSummaryDTO(proposalScore.getRank(), summary.getId(), summary.getProjectTitle(), summary.getBrief_summary(), proposalScore.getScore());
+                                }).toList();
+                        return new ResponseEntity<>(rankedSummaries, HttpStatus.OK);
+                    });
+        });
+    }
+
+}
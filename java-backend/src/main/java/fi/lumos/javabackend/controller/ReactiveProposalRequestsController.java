@@ -0,0 +1,79 @@
+package fi.lumos.javabackend.controller;
+
+import fi.lumos.javabackend.dto.ProposalRequestDto;
+import fi.lumos.javabackend.dto.ProposalSummaryDTO;
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.repository.reactive.ReactiveProposalRepository;
+import fi.lumos.javabackend.services.ProposalService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/proposals")
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveProposalRequestsController {
+
+    @Autowired
+    public ReactiveProposalRepository proposalRepository;
+
+    @Autowired
+    public ProposalService proposalService;
+
+    @PostMapping("/submit")
+    public Mono<ResponseEntity<Proposal>> submitProposal(@RequestBody ProposalRequestDto proposalRequestDto) {
+        Proposal proposal = proposalService.buildProposal(proposalRequestDto);
+        return proposalRepository.save(proposal)
+                .doOnError(e -> proposalService.onSaveFailed(proposal))
+                .doOnNext(proposalService::onSubmitted)
+                .map(saved -> new ResponseEntity<>(saved, HttpStatus.OK));
+    }
+
+    @GetMapping("/allproposals")
+    public Flux<Proposal> getAllProposals() {
+        return proposalRepository.findAll();
+    }
+
+    @GetMapping("/summaries")
+    public Flux<ProposalSummaryDTO> getProposalSummaries() {
+        return proposalRepository.findAllProjectedBy();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Proposal>> getProposal(@PathVariable String id) {
+        return proposalRepository.findById(id)
+                .map(proposal -> new ResponseEntity<>(proposal, HttpStatus.OK))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/status/{status}")
+    public Mono<ResponseEntity<Page<Proposal>>> getProposalsByStatus(@PathVariable String status,
+                                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                                     @RequestParam(defaultValue = "0") int page,
+                                                                     @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        Instant start = from != null ? from : Instant.EPOCH;
+        Instant end = to != null ? to : Instant.now();
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "submittedAt"));
+
+        return Mono.zip(
+                        proposalRepository.findByStatusAndSubmittedAtBetween(status, start, end, pageRequest).collectList(),
+                        proposalRepository.countByStatusAndSubmittedAtBetween(status, start, end))
+                .map(result -> new ResponseEntity<>(new PageImpl<>(result.getT1(), pageRequest, result.getT2()), HttpStatus.OK));
+    }
+}
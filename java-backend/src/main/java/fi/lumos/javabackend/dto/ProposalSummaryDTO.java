@@ -0,0 +1,15 @@
+package fi.lumos.javabackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Filled by a Mongo projection, so only these fields are read from proposal_submissions
+@Getter
+@AllArgsConstructor
+public class ProposalSummaryDTO {
+
+    private String id;
+    private String projectTitle;
+    private String brief_summary;
+
+}
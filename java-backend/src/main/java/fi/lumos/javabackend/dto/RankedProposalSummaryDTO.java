@@ -0,0 +1,17 @@
+package fi.lumos.javabackend.dto;
+
+import fi.lumos.javabackend.entity.Score;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RankedProposalSummaryDTO {
+
+    private int rank;
+    private String proposalId;
+    private String projectTitle;
+    private String brief_summary;
+    private Score score;
+
+}
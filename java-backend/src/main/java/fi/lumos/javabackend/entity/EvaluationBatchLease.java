@@ -0,0 +1,36 @@
+package fi.lumos.javabackend.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@Document(collection = "evaluation_batch_leases")
+@CompoundIndex(name = "status_leaseExpiresAt_idx", def = "{'status': 1, 'leaseExpiresAt': 1}")
+public class EvaluationBatchLease {
+
+    public static final String PENDING = "PENDING";
+    public static final String CLAIMED = "CLAIMED";
+    public static final String DONE = "DONE";
+
+    @Id
+    private String id;
+
+    private String runId;
+    private int batchIndex;
+    private List<String> proposalIds;
+    // Representative id -> near-duplicate ids that receive a copy of its score
+    private Map<String, List<String>> duplicates;
+
+    private String status;
+    private String owner;
+    private Instant leaseExpiresAt;
+    private int attempts;
+}
@@ -0,0 +1,24 @@
+package fi.lumos.javabackend.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Document(collection = "evaluation_runs")
+public class EvaluationRun {
+    @Id
+    private String id;
+
+    private int totalBatches;
+    private int completedBatches;
+    private Instant createdAt;
+
+    // Instance that won the right to run rankProposals once every batch was done
+    private String rankedBy;
+    private Instant rankedAt;
+}
@@ -8,6 +8,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -23,6 +24,7 @@ public class PhaseState {
     private String id;
 
     private String currentPhase;
+    @Indexed(name = "updatedAt_idx")
     private Instant updatedAt;
 
     public PhaseState(Phases newPhase, Instant now) {
@@ -3,6 +3,8 @@ package fi.lumos.javabackend.entity;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.stereotype.Component;
 
@@ -12,6 +14,7 @@ import java.time.Instant;
 @Setter
 @Component
 @Document(collection = "proposal_submissions")
+@CompoundIndex(name = "status_submittedAt_idx", def = "{'status': 1, 'submittedAt': -1}")
 public class Proposal {
 
     @Id
@@ -35,7 +38,11 @@ public class Proposal {
 
     private String stellarWalletAddress;
 
+    @Indexed(name = "submittedAt_idx")
     private Instant submittedAt;
     private String status;
 
+    // Id of the earlier submission this one is a near-duplicate of, null for originals
+    private String duplicateOf;
+
 }
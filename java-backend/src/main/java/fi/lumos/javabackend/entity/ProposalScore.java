@@ -3,6 +3,7 @@ package fi.lumos.javabackend.entity;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -14,10 +15,19 @@ public class ProposalScore {
     @Id
     private String id;
 
+    // One score row per proposal; writers upsert through ProposalScoreRepository.upsertAll
+    @Indexed(name = "proposalId_unique_idx", unique = true)
     private String proposalId;
     private Score score;
     private Instant evaluatedAt;
 
+    // Set when the proposal was rejected by the local pre-screen instead of scored by Groq
+    private String rejectionReason;
+
+    // Set on scores copied from a near-duplicate's representative; such rows rank after every original
+    private String duplicateOf;
+
+    @Indexed(name = "rank_idx")
     private int rank;
 
 }
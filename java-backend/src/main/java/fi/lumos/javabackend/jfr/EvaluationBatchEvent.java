@@ -0,0 +1,27 @@
+package fi.lumos.javabackend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("fi.lumos.EvaluationBatch")
+@Label("Evaluation Batch")
+@Category({"Lumos", "Evaluation"})
+public class EvaluationBatchEvent extends Event {
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Batch Size")
+    public int batchSize;
+
+    @Label("Scores Saved")
+    public int scoresSaved;
+
+    @Label("Completed Batches")
+    public int completed;
+
+    @Label("Total Batches")
+    public int total;
+}
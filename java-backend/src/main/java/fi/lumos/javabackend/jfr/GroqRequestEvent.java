@@ -0,0 +1,35 @@
+package fi.lumos.javabackend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("fi.lumos.GroqRequest")
+@Label("Groq Request")
+@Category({"Lumos", "Groq"})
+@Description("One HTTP call to the Groq chat completions API for a batch of proposals")
+public class GroqRequestEvent extends Event {
+
+    @Label("Batch Size")
+    public int batchSize;
+
+    @Label("Prompt Length")
+    @Description("Length of the request body in characters")
+    public int promptLength;
+
+    @Label("Hedge")
+    @Description("True for the duplicate request sent by hedging")
+    public boolean hedge;
+
+    @Label("HTTP Status")
+    public int httpStatus;
+
+    @Label("Parse Outcome")
+    @Description("OK, EMPTY, HTTP_ERROR, EXCEPTION or CANCELLED")
+    public String parseOutcome;
+
+    @Label("Scores")
+    public int scores;
+}
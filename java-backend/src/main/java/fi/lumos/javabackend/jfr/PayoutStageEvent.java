@@ -0,0 +1,23 @@
+package fi.lumos.javabackend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("fi.lumos.PayoutStage")
+@Label("Payout Stage")
+@Category({"Lumos", "Payment"})
+@Description("One stage of an XLM payout: ACCOUNT_FETCH, SIGN, SUBMIT or MAIL")
+public class PayoutStageEvent extends Event {
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Recipient")
+    public String recipient;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,15 @@
+package fi.lumos.javabackend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("fi.lumos.Ranking")
+@Label("Rank Proposals")
+@Category({"Lumos", "Evaluation"})
+public class RankingEvent extends Event {
+
+    @Label("Scores Ranked")
+    public int scoresRanked;
+}
@@ -1,12 +1,25 @@
 package fi.lumos.javabackend.repository;
 
+import fi.lumos.javabackend.dto.ProposalSummaryDTO;
 import fi.lumos.javabackend.entity.Proposal;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-import java.util.Optional;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 public interface ProposalRepository extends MongoRepository<Proposal, String> {
 
-    Optional<Proposal> findByStatus(String status);
+    List<Proposal> findByStatus(String status);
+
+    // Served by status_submittedAt_idx; pageable sort should stay on submittedAt to keep it an index scan
+    Page<Proposal> findByStatusAndSubmittedAtBetween(String status, Instant from, Instant to, Pageable pageable);
+
+    // DTO projections: Mongo only returns the summary fields
+    List<ProposalSummaryDTO> findAllProjectedBy();
+
+    List<ProposalSummaryDTO> findByIdIn(Collection<String> ids);
 
 }
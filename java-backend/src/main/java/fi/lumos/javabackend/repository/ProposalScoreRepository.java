@@ -4,10 +4,12 @@ import fi.lumos.javabackend.entity.ProposalScore;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface ProposalScoreRepository extends MongoRepository<ProposalScore, String> {
+public interface ProposalScoreRepository extends MongoRepository<ProposalScore, String>, ProposalScoreRepositoryCustom {
     Optional<ProposalScore> findByProposalId(String proposalId);
     List<ProposalScore> findAllByOrderByRankAsc(Pageable pageable);
+    List<ProposalScore> findByProposalIdIn(Collection<String> proposalIds);
 }
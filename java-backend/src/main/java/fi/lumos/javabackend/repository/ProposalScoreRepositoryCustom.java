@@ -0,0 +1,10 @@
+package fi.lumos.javabackend.repository;
+
+import fi.lumos.javabackend.entity.ProposalScore;
+
+import java.util.List;
+
+public interface ProposalScoreRepositoryCustom {
+    // Writes each score by proposalId, replacing an earlier row instead of adding a second one
+    void upsertAll(List<ProposalScore> scores);
+}
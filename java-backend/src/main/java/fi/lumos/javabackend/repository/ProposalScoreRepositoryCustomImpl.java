@@ -0,0 +1,47 @@
+package fi.lumos.javabackend.repository;
+
+import fi.lumos.javabackend.entity.ProposalScore;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+// proposalId is unique in proposal_scores, so re-evaluations, retried distributed batches and pre-screen
+// rejects all go through here rather than saveAll, which would insert a second row and fail on the index
+public class ProposalScoreRepositoryCustomImpl implements ProposalScoreRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void upsertAll(List<ProposalScore> scores) {
+        if (scores.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProposalScore.class);
+        for (ProposalScore score : scores) {
+            bulk.upsert(byProposalId(score), upsertUpdate(mongoTemplate.getConverter(), score));
+        }
+        bulk.execute();
+    }
+
+    public static Query byProposalId(ProposalScore score) {
+        return new Query(Criteria.where("proposalId").is(score.getProposalId()));
+    }
+
+    // Every mapped field except _id, so an existing row keeps its id and is otherwise overwritten
+    public static Update upsertUpdate(MongoConverter converter, ProposalScore score) {
+        Document document = new Document();
+        converter.write(score, document);
+        document.remove("_id");
+        Update update = new Update();
+        document.forEach(update::set);
+        return update;
+    }
+}
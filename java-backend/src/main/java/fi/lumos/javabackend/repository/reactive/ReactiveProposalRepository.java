@@ -0,0 +1,25 @@
+package fi.lumos.javabackend.repository.reactive;
+
+import fi.lumos.javabackend.dto.ProposalSummaryDTO;
+import fi.lumos.javabackend.entity.Proposal;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface ReactiveProposalRepository extends ReactiveMongoRepository<Proposal, String> {
+
+    Flux<Proposal> findByStatus(String status);
+
+    Flux<Proposal> findByStatusAndSubmittedAtBetween(String status, Instant from, Instant to, Pageable pageable);
+
+    Mono<Long> countByStatusAndSubmittedAtBetween(String status, Instant from, Instant to);
+
+    Flux<ProposalSummaryDTO> findAllProjectedBy();
+
+    Flux<ProposalSummaryDTO> findByIdIn(Collection<String> ids);
+
+}
@@ -0,0 +1,12 @@
+package fi.lumos.javabackend.repository.reactive;
+
+import fi.lumos.javabackend.entity.ProposalScore;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveProposalScoreRepository extends ReactiveMongoRepository<ProposalScore, String>, ReactiveProposalScoreRepositoryCustom {
+    Mono<ProposalScore> findByProposalId(String proposalId);
+    Flux<ProposalScore> findAllByOrderByRankAsc(Pageable pageable);
+}
@@ -0,0 +1,11 @@
+package fi.lumos.javabackend.repository.reactive;
+
+import fi.lumos.javabackend.entity.ProposalScore;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveProposalScoreRepositoryCustom {
+    // Reactive counterpart of ProposalScoreRepositoryCustom.upsertAll
+    Mono<Void> upsertAll(List<ProposalScore> scores);
+}
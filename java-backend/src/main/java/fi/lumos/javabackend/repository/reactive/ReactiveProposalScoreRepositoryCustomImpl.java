@@ -0,0 +1,30 @@
+package fi.lumos.javabackend.repository.reactive;
+
+import fi.lumos.javabackend.entity.ProposalScore;
+import fi.lumos.javabackend.repository.ProposalScoreRepositoryCustomImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public class ReactiveProposalScoreRepositoryCustomImpl implements ReactiveProposalScoreRepositoryCustom {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> upsertAll(List<ProposalScore> scores) {
+        if (scores.isEmpty()) {
+            return Mono.empty();
+        }
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProposalScore.class);
+        for (ProposalScore score : scores) {
+            bulk.upsert(ProposalScoreRepositoryCustomImpl.byProposalId(score),
+                    ProposalScoreRepositoryCustomImpl.upsertUpdate(mongoTemplate.getConverter(), score));
+        }
+        return bulk.execute().then();
+    }
+}
@@ -0,0 +1,136 @@
+package fi.lumos.javabackend.services;
+
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.entity.ProposalScore;
+import fi.lumos.javabackend.repository.ProposalScoreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Evaluates proposals while the Submission phase is still open. Submissions are queued and sent to
+// Groq in micro-batches, flushed when batch-size proposals are waiting or flush-window-ms has passed,
+// and the ranking is refreshed after every flush. By the time the phase moves to GroqCheck only the
+// last partial batch is left.
+
+@Service
+public class ContinuousEvaluationService {
+
+    @Autowired
+    private GroqEvaluation groqEvaluation;
+    @Autowired
+    private ProposalScoreRepository proposalScoreRepository;
+    @Autowired
+    @Qualifier("evaluationExecutor")
+    private AsyncTaskExecutor evaluationExecutor;
+
+    @Value("${app.evaluation.continuous.enabled}")
+    private boolean enabled;
+    @Value("${app.evaluation.continuous.batch-size}")
+    private int batchSize;
+    @Value("${app.evaluation.continuous.flush-window-ms}")
+    private long flushWindowMs;
+
+    private final LinkedBlockingQueue<Proposal> queue = new LinkedBlockingQueue<>();
+    // Queued or currently being scored; kept out of /evaluation/start so nothing is scored twice
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile long lastFlush = System.currentTimeMillis();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void enqueue(Proposal proposal) {
+        if (enabled) {
+            inFlight.add(proposal.getId());
+            queue.offer(proposal);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.evaluation.continuous.poll-interval-ms}")
+    public void flushIfDue() {
+        if (!enabled || queue.isEmpty()) {
+            return;
+        }
+        boolean windowElapsed = System.currentTimeMillis() - lastFlush >= flushWindowMs;
+        // The Groq calls run on the evaluation executor so the shared scheduler thread is never held;
+        // while a flush is still running, the next poll checks again
+        if ((queue.size() >= batchSize || windowElapsed) && !flushLock.isLocked()) {
+            evaluationExecutor.execute(() -> flush(windowElapsed));
+        }
+    }
+
+    // Called when the phase moves to GroqCheck; drains whatever is left without blocking the phase change
+    public void flushRemaining() {
+        if (enabled) {
+            evaluationExecutor.execute(() -> flush(true));
+        }
+    }
+
+    public List<Proposal> withoutScores(List<Proposal> proposals) {
+        Set<String> scored = new HashSet<>();
+        proposalScoreRepository.findByProposalIdIn(proposals.stream().map(Proposal::getId).toList())
+                .forEach(score -> scored.add(score.getProposalId()));
+        return proposals.stream().filter(p -> !scored.contains(p.getId()) && !inFlight.contains(p.getId())).toList();
+    }
+
+    private void flush(boolean includePartial) {
+        flushLock.lock();
+        try {
+            boolean evaluated = false;
+            while (queue.size() >= batchSize || (includePartial && !queue.isEmpty())) {
+                List<Proposal> batch = new ArrayList<>(batchSize);
+                queue.drainTo(batch, batchSize);
+                try {
+                    evaluate(batch);
+                } finally {
+                    batch.forEach(p -> inFlight.remove(p.getId()));
+                }
+                evaluated = true;
+            }
+            lastFlush = System.currentTimeMillis();
+
+            if (evaluated) {
+                groqEvaluation.rankProposals();
+            }
+        } catch (Exception e) {
+            System.err.println("Continuous evaluation flush failed: " + e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void evaluate(List<Proposal> batch) {
+        // Near-duplicates of proposals scored in an earlier micro-batch reuse that score
+        List<Proposal> pending = new ArrayList<>();
+        List<ProposalScore> copied = new ArrayList<>();
+        for (Proposal proposal : batch) {
+            Optional<ProposalScore> representativeScore = proposal.getDuplicateOf() == null
+                    ? Optional.empty()
+                    : proposalScoreRepository.findByProposalIdIn(List.of(proposal.getDuplicateOf())).stream().findFirst();
+            if (representativeScore.isPresent()) {
+                ProposalScore copy = new ProposalScore();
+                copy.setProposalId(proposal.getId());
+                copy.setScore(representativeScore.get().getScore());
+                copy.setEvaluatedAt(Instant.now());
+                copy.setDuplicateOf(proposal.getDuplicateOf());
+                copied.add(copy);
+            } else {
+                pending.add(proposal);
+            }
+        }
+
+        proposalScoreRepository.upsertAll(copied);
+        groqEvaluation.evaluateBatch(pending);
+    }
+
+}
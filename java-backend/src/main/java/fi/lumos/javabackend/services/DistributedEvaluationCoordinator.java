@@ -0,0 +1,240 @@
+package fi.lumos.javabackend.services;
+
+import fi.lumos.javabackend.entity.EvaluationBatchLease;
+import fi.lumos.javabackend.entity.EvaluationRun;
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.entity.ProposalScore;
+import fi.lumos.javabackend.jfr.EvaluationBatchEvent;
+import fi.lumos.javabackend.repository.ProposalScoreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+
+// Lets several backend instances share one evaluation run. Batches are written as lease documents and
+// every instance claims them with an atomic findAndModify; a lease whose holder died expires and is
+// picked up again. Holders renew their lease while Groq is working, and scores are upserted per
+// proposal, so a batch that is processed twice still leaves one score row per proposal. A batch that
+// gets no scores back goes back to PENDING until max-attempts claims have failed. Each instance runs
+// up to max-concurrent-batches batches at once on the evaluation executor. The instance that completes
+// the last batch races for the run's rankedBy field and only the winner runs rankProposals.
+
+@Service
+@ConditionalOnProperty(name = "app.evaluation.distributed.enabled", havingValue = "true")
+public class DistributedEvaluationCoordinator {
+
+    private final String instanceId = System.getenv().getOrDefault("HOSTNAME", "node") + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private GroqAPIClient groqAPIClient;
+    @Autowired
+    private GroqEvaluation groqEvaluation;
+    @Autowired
+    private TaskScheduler taskScheduler;
+    @Autowired
+    @Qualifier("evaluationExecutor")
+    private AsyncTaskExecutor evaluationExecutor;
+    @Autowired
+    private ProposalCache proposalCache;
+    @Autowired
+    private WebSocketProgressSender progressSender;
+    @Autowired
+    private ProposalScoreRepository proposalScoreRepository;
+
+    @Value("${app.evaluation.distributed.lease-seconds}")
+    private long leaseSeconds;
+    @Value("${app.evaluation.distributed.max-attempts}")
+    private int maxAttempts;
+
+    private final Semaphore batchSlots;
+
+    public DistributedEvaluationCoordinator(@Value("${app.evaluation.distributed.max-concurrent-batches}") int maxConcurrentBatches) {
+        this.batchSlots = new Semaphore(maxConcurrentBatches);
+    }
+
+    public String startRun(List<List<Proposal>> batches, Map<String, List<String>> duplicates) {
+        EvaluationRun run = new EvaluationRun();
+        run.setTotalBatches(batches.size());
+        run.setCreatedAt(Instant.now());
+        run = mongoTemplate.insert(run);
+
+        List<EvaluationBatchLease> leases = new ArrayList<>();
+        for (int i = 0; i < batches.size(); i++) {
+            EvaluationBatchLease lease = new EvaluationBatchLease();
+            lease.setRunId(run.getId());
+            lease.setBatchIndex(i);
+            lease.setProposalIds(batches.get(i).stream().map(Proposal::getId).toList());
+
+            Map<String, List<String>> batchDuplicates = new HashMap<>();
+            for (String proposalId : lease.getProposalIds()) {
+                if (duplicates.containsKey(proposalId)) {
+                    batchDuplicates.put(proposalId, duplicates.get(proposalId));
+                }
+            }
+            lease.setDuplicates(batchDuplicates);
+            lease.setStatus(EvaluationBatchLease.PENDING);
+            leases.add(lease);
+        }
+        mongoTemplate.insertAll(leases);
+
+        System.out.println("Evaluation run " + run.getId() + " queued " + leases.size() + " batches");
+        return run.getId();
+    }
+
+    // A run is unfinished until some instance has claimed its ranking
+    public boolean hasUnfinishedRun() {
+        return mongoTemplate.exists(new Query(Criteria.where("rankedBy").is(null)), EvaluationRun.class);
+    }
+
+    // Only claims leases; the batches run on the evaluation executor so the scheduler thread stays free
+    @Scheduled(fixedDelayString = "${app.evaluation.distributed.poll-interval-ms}")
+    public void claimAndProcess() {
+        while (batchSlots.tryAcquire()) {
+            EvaluationBatchLease lease;
+            try {
+                lease = claimNext();
+            } catch (RuntimeException e) {
+                batchSlots.release();
+                throw e;
+            }
+            if (lease == null) {
+                batchSlots.release();
+                return;
+            }
+            evaluationExecutor.execute(() -> {
+                try {
+                    processWithRenewal(lease);
+                } catch (Exception e) {
+                    // The lease is left to expire and another claim retries the batch
+                    System.err.println("Distributed batch " + lease.getBatchIndex() + " of run " + lease.getRunId() + " failed: " + e.getMessage());
+                } finally {
+                    batchSlots.release();
+                }
+            });
+        }
+    }
+
+    private EvaluationBatchLease claimNext() {
+        Instant now = Instant.now();
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("status").is(EvaluationBatchLease.PENDING),
+                Criteria.where("status").is(EvaluationBatchLease.CLAIMED).and("leaseExpiresAt").lt(now)))
+                .with(Sort.by("runId", "batchIndex"));
+        Update update = new Update()
+                .set("status", EvaluationBatchLease.CLAIMED)
+                .set("owner", instanceId)
+                .set("leaseExpiresAt", now.plus(Duration.ofSeconds(leaseSeconds)))
+                .inc("attempts", 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), EvaluationBatchLease.class);
+    }
+
+    private void processWithRenewal(EvaluationBatchLease lease) {
+        // A Groq call plus a hedge can outlast the lease; keep extending it until the batch is done
+        Duration renewEvery = Duration.ofSeconds(Math.max(1, leaseSeconds / 3));
+        ScheduledFuture<?> renewal = taskScheduler.scheduleAtFixedRate(() -> renew(lease), Instant.now().plus(renewEvery), renewEvery);
+        try {
+            process(lease);
+        } finally {
+            renewal.cancel(false);
+        }
+    }
+
+    private void renew(EvaluationBatchLease lease) {
+        try {
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(lease.getId()).and("owner").is(instanceId).and("status").is(EvaluationBatchLease.CLAIMED)),
+                    new Update().set("leaseExpiresAt", Instant.now().plus(Duration.ofSeconds(leaseSeconds))),
+                    EvaluationBatchLease.class);
+        } catch (RuntimeException e) {
+            System.err.println("Could not renew lease " + lease.getId() + ": " + e.getMessage());
+        }
+    }
+
+    private void process(EvaluationBatchLease lease) {
+        EvaluationBatchEvent event = new EvaluationBatchEvent();
+        event.begin();
+        event.mode = "distributed";
+
+        List<Proposal> batch = proposalCache.findAllById(lease.getProposalIds());
+        List<ProposalScore> scores = groqEvaluation.withDuplicateScores(groqAPIClient.sendBatch(batch), lease.getDuplicates());
+        if (scores.isEmpty() && !batch.isEmpty() && release(lease)) {
+            return;
+        }
+        proposalScoreRepository.upsertAll(scores);
+        event.batchSize = batch.size();
+        event.scoresSaved = scores.size();
+
+        // Only count the batch if this instance still holds the lease; otherwise another instance took it over
+        EvaluationBatchLease done = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(lease.getId()).and("owner").is(instanceId).and("status").is(EvaluationBatchLease.CLAIMED)),
+                new Update().set("status", EvaluationBatchLease.DONE),
+                EvaluationBatchLease.class);
+        if (done == null) {
+            System.err.println("Lease " + lease.getId() + " expired before batch " + lease.getBatchIndex() + " finished");
+            return;
+        }
+
+        EvaluationRun run = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(lease.getRunId())),
+                new Update().inc("completedBatches", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                EvaluationRun.class);
+        if (run == null) {
+            return;
+        }
+
+        int progress = (int) (((double) run.getCompletedBatches() / run.getTotalBatches()) * 100);
+        progressSender.sendProgress(progress);
+
+        event.completed = run.getCompletedBatches();
+        event.total = run.getTotalBatches();
+        event.commit();
+
+        if (run.getCompletedBatches() == run.getTotalBatches() && claimRanking(run.getId())) {
+            groqEvaluation.rankProposals();
+        }
+    }
+
+    // Groq returned nothing for the batch: hand it back for another claim, unless it has used up its
+    // attempts, in which case it is counted unscored so the run can still finish and be ranked
+    private boolean release(EvaluationBatchLease lease) {
+        if (lease.getAttempts() >= maxAttempts) {
+            System.err.println("Batch " + lease.getBatchIndex() + " of run " + lease.getRunId() + " got no scores after " + lease.getAttempts() + " attempts, giving up");
+            return false;
+        }
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(lease.getId()).and("owner").is(instanceId).and("status").is(EvaluationBatchLease.CLAIMED)),
+                new Update().set("status", EvaluationBatchLease.PENDING).unset("owner").unset("leaseExpiresAt"),
+                EvaluationBatchLease.class);
+        System.err.println("Batch " + lease.getBatchIndex() + " of run " + lease.getRunId() + " got no scores, released for retry");
+        return true;
+    }
+
+    private boolean claimRanking(String runId) {
+        EvaluationRun claimed = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(runId).and("rankedBy").is(null)),
+                new Update().set("rankedBy", instanceId).set("rankedAt", Instant.now()),
+                EvaluationRun.class);
+        return claimed != null;
+    }
+
+}
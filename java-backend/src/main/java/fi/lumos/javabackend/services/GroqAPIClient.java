@@ -3,6 +3,9 @@ package fi.lumos.javabackend.services;
 import fi.lumos.javabackend.entity.Proposal;
 import fi.lumos.javabackend.entity.ProposalScore;
 import fi.lumos.javabackend.entity.Score;
+import fi.lumos.javabackend.jfr.GroqRequestEvent;
+import fi.lumos.javabackend.utilites.HedgeBudget;
+import fi.lumos.javabackend.utilites.LatencyWindow;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,9 +15,16 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 //This will be used to send the request to GROQ
 
@@ -23,48 +33,52 @@ public class GroqAPIClient {
 
     private final HttpClient client = HttpClient.newHttpClient();
 
+    @Value("${groq.url}")
+    private String groqUrl;
+
     @Value("${api.key}")
     private String groqApiKey;
 
+    @Value("${groq.request-timeout-seconds}")
+    private long requestTimeoutSeconds;
+
+    // Hedging: if a call is slower than the configured percentile of recent calls, a duplicate
+    // request is sent and whichever returns valid scores first wins. Hedges are capped at
+    // max-ratio of the last window primary calls so the extra token spend stays bounded.
+    @Value("${groq.hedging.enabled}")
+    private boolean hedgingEnabled;
+    @Value("${groq.hedging.percentile}")
+    private double hedgePercentile;
+    @Value("${groq.hedging.min-delay-ms}")
+    private long hedgeMinDelayMs;
+    @Value("${groq.hedging.min-samples}")
+    private int hedgeMinSamples;
+
+    private final LatencyWindow latencies;
+    private final HedgeBudget hedgeBudget;
+
+    public GroqAPIClient(@Value("${groq.hedging.window}") int hedgeWindow,
+                         @Value("${groq.hedging.max-ratio}") double hedgeMaxRatio) {
+        this.latencies = new LatencyWindow(hedgeWindow);
+        this.hedgeBudget = new HedgeBudget(hedgeWindow, hedgeMaxRatio);
+    }
+
     public List<ProposalScore> sendBatch(List<Proposal> batch) {
         try {
-            String prompt = buildPromptFromBatch(batch);
-
-            JSONObject body = new JSONObject();
-            body.put("model", "meta-llama/llama-4-scout-17b-16e-instruct"); // meta-llama/llama-4-scout-17b-16e-instruct
-            body.put("temperature", 1);
-            body.put("max_tokens", 1024);
-            body.put("top_p", 1);
-            body.put("stream", false);
-            JSONArray messages = new JSONArray();
-
-            messages.put(new JSONObject().put("role", "system")
-                    .put("content", "You are an expert proposals grant evaluator. Your role is to critically and objectively review the following sections of a project proposal and assign scores across key evaluation dimensions. Evaluate the proposal strictly based on the content provided, without making assumptions or requiring additional context. Use the following criteria:\n" +
-                            "\n" +
-                            "clarity (On a Scale of 1–100): Evaluate how clearly and coherently the proposal conveys its purpose, goals, and plan.\n" +
-                            "\n" +
-                            "feasibility (On a Scale of 1–100): Assess the practicality and likelihood of successful execution based on the proposed objectives and budget.\n" +
-                            "\n" +
-                            "impact (On a Scale of 1–100): Judge the potential significance and benefit of the project’s outcomes for its target audience or domain.\n" +
-                            "\n" +
-                            "innovation (On a Scale of 1–100): Consider the originality, creativity, and forward-thinking nature of the proposed idea or approach.\n" +
-                            "\n" +
-                            "total (On a Scale of 1–100): Provide a comprehensive overall score on a scale of 1 to 100 that reflects your holistic assessment of the entire proposal." + "\n\n" +
-                            "Respond in valid JSON array only inside triple backticks: ```[ {...}, {...} ]```    with no explanations or extra text"));
-
-            messages.put(new JSONObject().put("role", "user").put("content", prompt));
-
-            body.put("messages", messages);
-
-            HttpRequest request = HttpRequest.newBuilder().uri(URI.create("https://api.groq.com/openai/v1/chat/completions")).header("Content-Type", "application/json").header("Authorization", "Bearer " + groqApiKey).POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                return parseResponse(response.body(), batch);
-            } else {
-                System.err.println("Groq API failed: " + response.body());
-                return List.of();
+            String body = buildRequestBody(batch);
+            HttpRequest request = HttpRequest.newBuilder().uri(URI.create(groqUrl)).timeout(Duration.ofSeconds(requestTimeoutSeconds)).header("Content-Type", "application/json").header("Authorization", "Bearer " + groqApiKey).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+
+            if (hedgingEnabled) {
+                return sendHedged(request, batch, body.length());
+            }
+
+            GroqRequestEvent event = beginEvent(batch, body.length(), false);
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse<String>> call = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+            try {
+                return await(traced(call, batch, start, event), start);
+            } finally {
+                call.cancel(true);
             }
 
         } catch (Exception e) {
@@ -73,6 +87,149 @@ public class GroqAPIClient {
         }
     }
 
+    private List<ProposalScore> sendHedged(HttpRequest request, List<Proposal> batch, int promptLength) throws InterruptedException {
+        long call = hedgeBudget.recordCall();
+        GroqRequestEvent primaryEvent = beginEvent(batch, promptLength, false);
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> primaryCall = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        CompletableFuture<List<ProposalScore>> primary = traced(primaryCall, batch, start, primaryEvent);
+        CompletableFuture<HttpResponse<String>> hedgeCall = null;
+
+        try {
+            if (latencies.size() < hedgeMinSamples) {
+                // Not enough history to know what "slow" means yet; only the request timeout applies
+                return await(primary, start);
+            }
+
+            long hedgeDelay = Math.max(hedgeMinDelayMs, latencies.percentile(hedgePercentile));
+            try {
+                return primary.get(hedgeDelay, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
+                return List.of();
+            } catch (TimeoutException e) {
+                if (!hedgeBudget.tryHedge(call)) {
+                    return await(primary, start);
+                }
+            }
+
+            System.out.println("Groq batch slower than " + hedgeDelay + " ms, sending hedged request");
+            GroqRequestEvent hedgeEvent = beginEvent(batch, promptLength, true);
+            long hedgeStart = System.nanoTime();
+            hedgeCall = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+            CompletableFuture<List<ProposalScore>> hedge = traced(hedgeCall, batch, hedgeStart, hedgeEvent);
+
+            // First non-empty result wins; if both finish without one, the batch yields no scores
+            CompletableFuture<List<ProposalScore>> winner = new CompletableFuture<>();
+            primary.thenAccept(scores -> { if (!scores.isEmpty()) winner.complete(scores); });
+            hedge.thenAccept(scores -> { if (!scores.isEmpty()) winner.complete(scores); });
+            CompletableFuture.allOf(primary, hedge).whenComplete((ignored, error) -> winner.complete(List.of()));
+
+            return await(winner, start);
+        } finally {
+            if (!primaryCall.isDone()) {
+                // The primary lost to the hedge or ran out of time. Its time so far still goes into the window,
+                // otherwise the slow tail is never recorded and the hedge delay keeps shrinking
+                latencies.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            // Cancelling the HttpClient future aborts the exchange still in flight
+            primaryCall.cancel(true);
+            if (hedgeCall != null) {
+                hedgeCall.cancel(true);
+            }
+        }
+    }
+
+    // HttpRequest.timeout only bounds the wait for response headers, so the whole exchange, body included,
+    // is bounded here; the caller cancels the call once this returns
+    private List<ProposalScore> await(CompletableFuture<List<ProposalScore>> future, long startNanos) throws InterruptedException {
+        long remainingNanos = TimeUnit.SECONDS.toNanos(requestTimeoutSeconds) - (System.nanoTime() - startNanos);
+        try {
+            return future.get(remainingNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+            return List.of();
+        } catch (TimeoutException e) {
+            System.err.println("Groq batch timed out after " + requestTimeoutSeconds + " s");
+            return List.of();
+        }
+    }
+
+    // Failed or cancelled attempts still end their JFR event
+    private CompletableFuture<List<ProposalScore>> traced(CompletableFuture<HttpResponse<String>> call, List<Proposal> batch, long startNanos, GroqRequestEvent event) {
+        call.whenComplete((response, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                commitEvent(event, 0, cause instanceof CancellationException ? "CANCELLED" : "EXCEPTION", 0);
+            }
+        });
+        return call.thenApply(response -> toScores(response, batch, startNanos, event));
+    }
+
+    private List<ProposalScore> toScores(HttpResponse<String> response, List<Proposal> batch, long startNanos, GroqRequestEvent event) {
+        if (response.statusCode() == 200) {
+            latencies.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            List<ProposalScore> scores = parseResponse(response.body(), batch);
+            commitEvent(event, 200, scores.isEmpty() ? "EMPTY" : "OK", scores.size());
+            return scores;
+        } else {
+            System.err.println("Groq API failed: " + response.body());
+            commitEvent(event, response.statusCode(), "HTTP_ERROR", 0);
+            return List.of();
+        }
+    }
+
+    private GroqRequestEvent beginEvent(List<Proposal> batch, int promptLength, boolean hedge) {
+        GroqRequestEvent event = new GroqRequestEvent();
+        event.batchSize = batch.size();
+        event.promptLength = promptLength;
+        event.hedge = hedge;
+        event.begin();
+        return event;
+    }
+
+    private void commitEvent(GroqRequestEvent event, int httpStatus, String parseOutcome, int scores) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.httpStatus = httpStatus;
+            event.parseOutcome = parseOutcome;
+            event.scores = scores;
+            event.commit();
+        }
+    }
+
+    // Shared with ReactiveGroqAPIClient so both modes send the same prompt
+    String buildRequestBody(List<Proposal> batch) {
+        String prompt = buildPromptFromBatch(batch);
+
+        JSONObject body = new JSONObject();
+        body.put("model", "meta-llama/llama-4-scout-17b-16e-instruct"); // meta-llama/llama-4-scout-17b-16e-instruct
+        body.put("temperature", 1);
+        body.put("max_tokens", 1024);
+        body.put("top_p", 1);
+        body.put("stream", false);
+        JSONArray messages = new JSONArray();
+
+        messages.put(new JSONObject().put("role", "system")
+                .put("content", "You are an expert proposals grant evaluator. Your role is to critically and objectively review the following sections of a project proposal and assign scores across key evaluation dimensions. Evaluate the proposal strictly based on the content provided, without making assumptions or requiring additional context. Use the following criteria:\n" +
+                        "\n" +
+                        "clarity (On a Scale of 1–100): Evaluate how clearly and coherently the proposal conveys its purpose, goals, and plan.\n" +
+                        "\n" +
+                        "feasibility (On a Scale of 1–100): Assess the practicality and likelihood of successful execution based on the proposed objectives and budget.\n" +
+                        "\n" +
+                        "impact (On a Scale of 1–100): Judge the potential significance and benefit of the project’s outcomes for its target audience or domain.\n" +
+                        "\n" +
+                        "innovation (On a Scale of 1–100): Consider the originality, creativity, and forward-thinking nature of the proposed idea or approach.\n" +
+                        "\n" +
+                        "total (On a Scale of 1–100): Provide a comprehensive overall score on a scale of 1 to 100 that reflects your holistic assessment of the entire proposal." + "\n\n" +
+                        "Respond in valid JSON array only inside triple backticks: ```[ {...}, {...} ]```    with no explanations or extra text"));
+
+        messages.put(new JSONObject().put("role", "user").put("content", prompt));
+
+        body.put("messages", messages);
+        return body.toString();
+    }
+
     private String buildPromptFromBatch(List<Proposal> batch) {
         StringBuilder sb = new StringBuilder();
         int i = 1;
@@ -83,7 +240,7 @@ public class GroqAPIClient {
                     .append("Summary: ").append(p.getBrief_summary()).append("\n")
                     .append("Primary Goal: ").append(p.getPrimaryGoal()).append("\n")
                     .append("Specific Objective: ").append(p.getSpecificObjective()).append("\n\n")
-                    .append("Budget: ").append(p.getBudget().toString()).append("\n")
+                    .append("Budget: ").append(p.getBudget()).append("\n")
                     .append("Long Term Plan: ").append(p.getLongTermPlan()).append("\n")
                     .append("Future Funding Plans: ").append(p.getFutureFundingPlans()).append("\n\n");
         }
@@ -91,7 +248,7 @@ public class GroqAPIClient {
         return sb.toString();
     }
 
-    private List<ProposalScore> parseResponse(String body, List<Proposal> batch) {
+    List<ProposalScore> parseResponse(String body, List<Proposal> batch) {
         List<ProposalScore> scores = new ArrayList<>();
         try {
             // Assumes the Groq LLM returns a clean JSON array of objects
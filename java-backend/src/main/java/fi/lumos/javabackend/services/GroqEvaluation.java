@@ -2,52 +2,160 @@ package fi.lumos.javabackend.services;
 
 import fi.lumos.javabackend.entity.Proposal;
 import fi.lumos.javabackend.entity.ProposalScore;
+import fi.lumos.javabackend.jfr.EvaluationBatchEvent;
+import fi.lumos.javabackend.jfr.RankingEvent;
 import fi.lumos.javabackend.repository.ProposalScoreRepository;
+import fi.lumos.javabackend.services.prescreen.PreScreenResult;
+import fi.lumos.javabackend.services.prescreen.ProposalPreScreener;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class GroqEvaluation {
 
+    // Originals before copied near-duplicate scores, then by total, tie-breaker: clarity, then feasibility
+    public static final Comparator<ProposalScore> RANKING_ORDER = (a, b) -> {
+        int cmp = Boolean.compare(a.getDuplicateOf() != null, b.getDuplicateOf() != null);
+        if (cmp == 0) cmp = Integer.compare(b.getScore().getTotal(), a.getScore().getTotal());
+        if (cmp == 0) cmp = Integer.compare(b.getScore().getClarity(), a.getScore().getClarity());
+        if (cmp == 0) cmp = Integer.compare(b.getScore().getFeasibility(), a.getScore().getFeasibility());
+        return cmp;
+    };
+
     @Autowired
     public GroqAPIClient groqAPIService;
     @Autowired
     public ProposalScoreRepository proposalScoreRepository;
     @Autowired
     private WebSocketProgressSender progressSender;
+    @Autowired
+    private ProposalPreScreener preScreener;
+    // Present only when app.evaluation.distributed.enabled=true
+    @Autowired
+    private ObjectProvider<DistributedEvaluationCoordinator> distributedCoordinator;
+    @Autowired
+    @Qualifier("evaluationExecutor")
+    private AsyncTaskExecutor evaluationExecutor;
+
+    // Set from dispatch until ranking; the rate limiter's bulkhead only covers the request thread, so without
+    // this a second /evaluation/start would queue a whole second run of batches behind the first
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Returns false, starting nothing, while an earlier run is still being scored
+    public boolean processProposals(List<Proposal> proposals) {
+        DistributedEvaluationCoordinator coordinator = distributedCoordinator.getIfAvailable();
+        if (coordinator != null && coordinator.hasUnfinishedRun()) {
+            return false;
+        }
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            dispatch(proposals, coordinator);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
 
-    public void processProposals(List<Proposal> proposals) {
+    private void dispatch(List<Proposal> proposals, DistributedEvaluationCoordinator coordinator) {
         int batchsize = 5;
-        List<List<Proposal>> batches = splitIntoBatches(proposals, batchsize);
+        PreScreenResult screened = preScreener.screen(proposals);
+        proposalScoreRepository.upsertAll(screened.getRejected());
+
+        Map<String, List<String>> duplicates = groupDuplicates(screened.getPassed());
+        List<List<Proposal>> batches = splitIntoBatches(withoutDuplicates(screened.getPassed(), duplicates), batchsize);
         int total_batches = batches.size();
 
+        if (total_batches == 0) {
+            progressSender.sendProgress(100);
+            try {
+                rankProposals();
+            } finally {
+                running.set(false);
+            }
+            return;
+        }
+
+        if (coordinator != null) {
+            // From here the run lives in Mongo, where hasUnfinishedRun sees it on every instance
+            coordinator.startRun(batches, duplicates);
+            running.set(false);
+            return;
+        }
+
         AtomicInteger completed = new AtomicInteger(0);
 
         for (List<Proposal> batch : batches) {
-            processBatchAsync(batch, completed, total_batches);
+            evaluationExecutor.execute(() -> {
+                try {
+                    processBatchAsync(batch, duplicates, completed, total_batches);
+                } catch (Exception e) {
+                    System.err.println("Evaluation batch failed: " + e.getMessage());
+                }
+            });
         }
 
     }
 
 
-    @Async
-    public void processBatchAsync(List<Proposal> batch, AtomicInteger completed, int total) {
-        List<ProposalScore> scores = groqAPIService.sendBatch(batch);
-
-        // Save scores to MongoDB
-        proposalScoreRepository.saveAll(scores);
+    // Scores a micro-batch on the calling thread, without progress events or ranking
+    public void evaluateBatch(List<Proposal> proposals) {
+        PreScreenResult screened = preScreener.screen(proposals);
+        proposalScoreRepository.upsertAll(screened.getRejected());
+
+        Map<String, List<String>> duplicates = groupDuplicates(screened.getPassed());
+        for (List<Proposal> batch : splitIntoBatches(withoutDuplicates(screened.getPassed(), duplicates), 5)) {
+            EvaluationBatchEvent event = new EvaluationBatchEvent();
+            event.begin();
+            List<ProposalScore> scores = withDuplicateScores(groqAPIService.sendBatch(batch), duplicates);
+            proposalScoreRepository.upsertAll(scores);
+            event.mode = "continuous";
+            event.batchSize = batch.size();
+            event.scoresSaved = scores.size();
+            event.commit();
+        }
+    }
 
-        int finished = completed.incrementAndGet();
-        int progress = (int) (((double) finished / total) * 100);
-        progressSender.sendProgress(progress);
 
-        if (finished == total) {
-            rankProposals();
+    public void processBatchAsync(List<Proposal> batch, Map<String, List<String>> duplicates, AtomicInteger completed, int total) {
+        EvaluationBatchEvent event = new EvaluationBatchEvent();
+        event.begin();
+        int saved = 0;
+        try {
+            List<ProposalScore> scores = withDuplicateScores(groqAPIService.sendBatch(batch), duplicates);
+
+            // Save scores to MongoDB
+            proposalScoreRepository.upsertAll(scores);
+            saved = scores.size();
+        } finally {
+            // A failed batch still counts, otherwise progress never reaches 100 and the run is never ranked
+            int finished = completed.incrementAndGet();
+            int progress = (int) (((double) finished / total) * 100);
+            progressSender.sendProgress(progress);
+
+            event.mode = "local";
+            event.batchSize = batch.size();
+            event.scoresSaved = saved;
+            event.completed = finished;
+            event.total = total;
+            event.commit();
+
+            if (finished == total) {
+                try {
+                    rankProposals();
+                } finally {
+                    running.set(false);
+                }
+            }
         }
     }
 
@@ -62,16 +170,49 @@ public class GroqEvaluation {
     }
 
 
+    // Representative id -> ids of near-duplicates in the same run; only representatives are sent to Groq
+    public Map<String, List<String>> groupDuplicates(List<Proposal> proposals) {
+        Set<String> ids = new HashSet<>();
+        proposals.forEach(p -> ids.add(p.getId()));
+
+        Map<String, List<String>> duplicates = new HashMap<>();
+        for (Proposal p : proposals) {
+            if (p.getDuplicateOf() != null && ids.contains(p.getDuplicateOf())) {
+                duplicates.computeIfAbsent(p.getDuplicateOf(), key -> new ArrayList<>()).add(p.getId());
+            }
+        }
+        return duplicates;
+    }
+
+    public List<Proposal> withoutDuplicates(List<Proposal> proposals, Map<String, List<String>> duplicates) {
+        return proposals.stream()
+                .filter(p -> p.getDuplicateOf() == null || !duplicates.containsKey(p.getDuplicateOf()))
+                .toList();
+    }
+
+    // Copies each representative's score to the members of its cluster
+    public List<ProposalScore> withDuplicateScores(List<ProposalScore> scores, Map<String, List<String>> duplicates) {
+        List<ProposalScore> expanded = new ArrayList<>(scores);
+        for (ProposalScore score : scores) {
+            for (String duplicateId : duplicates.getOrDefault(score.getProposalId(), List.of())) {
+                ProposalScore copy = new ProposalScore();
+                copy.setProposalId(duplicateId);
+                copy.setScore(score.getScore());
+                copy.setEvaluatedAt(score.getEvaluatedAt());
+                copy.setDuplicateOf(score.getProposalId());
+                expanded.add(copy);
+            }
+        }
+        return expanded;
+    }
+
+
     public void rankProposals() {
+        RankingEvent event = new RankingEvent();
+        event.begin();
         List<ProposalScore> all = proposalScoreRepository.findAll();
 
-        // Sort by total, tie-breaker: clarity, then feasibility
-        all.sort((a, b) -> {
-            int cmp = Integer.compare(b.getScore().getTotal(), a.getScore().getTotal());
-            if (cmp == 0) cmp = Integer.compare(b.getScore().getClarity(), a.getScore().getClarity());
-            if (cmp == 0) cmp = Integer.compare(b.getScore().getFeasibility(), a.getScore().getFeasibility());
-            return cmp;
-        });
+        all.sort(RANKING_ORDER);
 
         // Assign Ranking
         for (int i = 0; i < all.size(); i++) {
@@ -80,6 +221,9 @@ public class GroqEvaluation {
         }
 
         proposalScoreRepository.saveAll(all);
+
+        event.scoresRanked = all.size();
+        event.commit();
     }
 
 
@@ -0,0 +1,135 @@
+package fi.lumos.javabackend.services;
+
+import fi.lumos.javabackend.jfr.EvaluationBatchEvent;
+import fi.lumos.javabackend.jfr.GroqRequestEvent;
+import fi.lumos.javabackend.jfr.PayoutStageEvent;
+import fi.lumos.javabackend.jfr.RankingEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// Controls a single in-process Flight Recorder recording: the JDK's predefined settings plus the
+// Lumos events (Groq calls, evaluation batches, ranking, payout stages). Dumps are .jfr files
+// that open in JDK Mission Control; only the newest max-dumps are kept on disk.
+
+@Service
+public class JfrRecordingService {
+
+    @Value("${app.jfr.settings}")
+    private String settings;
+    @Value("${app.jfr.max-age-minutes}")
+    private long maxAgeMinutes;
+    @Value("${app.jfr.dump-directory}")
+    private String dumpDirectory;
+    @Value("${app.jfr.max-dumps}")
+    private int maxDumps;
+    @Value("${app.jfr.start-on-boot}")
+    private boolean startOnBoot;
+
+    private static final List<String> SECRET_BEARING_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation", "jdk.SystemProcess");
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording recording;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnBoot() throws IOException, ParseException {
+        if (startOnBoot) {
+            start();
+        }
+    }
+
+    public Map<String, Object> start() throws IOException, ParseException {
+        lock.lock();
+        try {
+            if (recording == null || recording.getState() != RecordingState.RUNNING) {
+                recording = new Recording(Configuration.getConfiguration(settings));
+                // These capture the environment, -D properties, JVM arguments and process command lines,
+                // which is where the Groq key, Mongo URI, mail password and issuer seed live
+                for (String event : SECRET_BEARING_EVENTS) {
+                    recording.disable(event);
+                }
+                recording.setName("lumos");
+                recording.setToDisk(true);
+                recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+                recording.enable(GroqRequestEvent.class);
+                recording.enable(EvaluationBatchEvent.class);
+                recording.enable(RankingEvent.class);
+                recording.enable(PayoutStageEvent.class);
+                recording.start();
+            }
+            return status();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path dump() throws IOException {
+        lock.lock();
+        try {
+            if (recording == null || recording.getState() != RecordingState.RUNNING) {
+                throw new IllegalStateException("No recording is running");
+            }
+            Path directory = Path.of(dumpDirectory);
+            Files.createDirectories(directory);
+            Path file = directory.resolve("lumos-" + Instant.now().toEpochMilli() + ".jfr");
+            recording.dump(file);
+            pruneDumps(directory);
+            return file;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // File names carry the dump time in epoch millis, so name order is age order
+    private void pruneDumps(Path directory) throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(directory)) {
+            dumps = files.filter(path -> path.getFileName().toString().matches("lumos-\\d+\\.jfr")).sorted().toList();
+        }
+        for (int i = 0; i < dumps.size() - Math.max(1, maxDumps); i++) {
+            Files.deleteIfExists(dumps.get(i));
+        }
+    }
+
+    public Map<String, Object> stop() {
+        lock.lock();
+        try {
+            if (recording != null) {
+                recording.close();
+                recording = null;
+            }
+            return status();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", recording != null && recording.getState() == RecordingState.RUNNING);
+        if (recording != null) {
+            status.put("startTime", recording.getStartTime());
+            status.put("settings", settings);
+            status.put("maxAgeMinutes", maxAgeMinutes);
+        }
+        return status;
+    }
+
+}
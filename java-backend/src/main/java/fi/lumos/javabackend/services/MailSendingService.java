@@ -1,17 +1,27 @@
 package fi.lumos.javabackend.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.FutureTask;
+
 @Service
 public class MailSendingService {
 
     @Autowired
     public  JavaMailSender javaMailSender;
 
-    public void sendMail(String to, String recipientName, String projectTitle, String amountCredited, String walletAddress, String transactionId) {
+    // Keeps the synchronized SMTP transport off virtual threads; see ExecutorConfig.mailExecutor
+    @Autowired
+    @Qualifier("mailExecutor")
+    public TaskExecutor mailExecutor;
+
+    // Returns whether the mail server accepted the message; failures are logged, not thrown
+    public boolean sendMail(String to, String recipientName, String projectTitle, String amountCredited, String walletAddress, String transactionId) {
 
     String subject = "\uD83C\uDF89 Congratulations! Your Project Has Been Funded by LUMOS ";
 
@@ -46,9 +56,13 @@ public class MailSendingService {
             mail.setTo(to);
             mail.setSubject(subject);
             mail.setText(body);
-            javaMailSender.send(mail);
+            FutureTask<Void> send = new FutureTask<>(() -> javaMailSender.send(mail), null);
+            mailExecutor.execute(send);
+            send.get();
+            return true;
         } catch (Exception e) {
             System.out.println("Error sending mail to " + e.getMessage());
+            return false;
         }
     }
 }
@@ -2,6 +2,7 @@ package fi.lumos.javabackend.services;
 
 import fi.lumos.javabackend.dto.StellarTransaction;
 import fi.lumos.javabackend.dto.TransactionResponseDTO;
+import fi.lumos.javabackend.jfr.PayoutStageEvent;
 import fi.lumos.javabackend.utilites.StellarAmountFormatter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,8 +27,9 @@ public class PaymentTransactionService {
 //        PaymentTransactionService.issuerSecretKey = SECRET_KEY;
 //    }
     @Autowired
-    public PaymentTransactionService(@Value("${app.security.issuerSecretKey}") String issuerSecretKey){
-        this.server = new Server("https://horizon-testnet.stellar.org");
+    public PaymentTransactionService(@Value("${app.security.issuerSecretKey}") String issuerSecretKey,
+                                     @Value("${app.stellar.horizon-url}") String horizonUrl){
+        this.server = new Server(horizonUrl);
         this.network = Network.TESTNET;
 
         this.issuerKeyPair = KeyPair.fromSecretSeed(issuerSecretKey);
@@ -38,34 +40,61 @@ public class PaymentTransactionService {
     public MailSendingService mailSendingService;
 
     public TransactionResponseDTO sendXlm(StellarTransaction stellarTransaction) throws IOException {
-        AccountResponse issuerAccount = server.accounts().account(issuerKeyPair.getAccountId());
+        String recipient = stellarTransaction.getRecipient();
 
-        String amount = StellarAmountFormatter.format(stellarTransaction.getAmount());
-
-        PaymentOperation paymentOperation = PaymentOperation.builder()
-                .destination(stellarTransaction.getRecipient())
-                .asset(new AssetTypeNative()) // XLM Native Asset
-                .amount(new BigDecimal(amount)) // BigDecimal now
-                .build();
-
-        Transaction transaction = new TransactionBuilder(issuerAccount, network)
-                .addOperation(paymentOperation)
-                .setTimeout(300)
-                .setBaseFee(Transaction.MIN_BASE_FEE)
-                .build();
+        PayoutStageEvent fetchEvent = beginStage("ACCOUNT_FETCH", recipient);
+        AccountResponse issuerAccount;
+        try {
+            issuerAccount = server.accounts().account(issuerKeyPair.getAccountId());
+            endStage(fetchEvent, true);
+        } catch (IOException | RuntimeException e) {
+            endStage(fetchEvent, false);
+            throw e;
+        }
 
-        transaction.sign(issuerKeyPair);
+        PayoutStageEvent signEvent = beginStage("SIGN", recipient);
+        Transaction transaction;
+        try {
+            String amount = StellarAmountFormatter.format(stellarTransaction.getAmount());
+
+            PaymentOperation paymentOperation = PaymentOperation.builder()
+                    .destination(stellarTransaction.getRecipient())
+                    .asset(new AssetTypeNative()) // XLM Native Asset
+                    .amount(new BigDecimal(amount)) // BigDecimal now
+                    .build();
+
+            transaction = new TransactionBuilder(issuerAccount, network)
+                    .addOperation(paymentOperation)
+                    .setTimeout(300)
+                    .setBaseFee(Transaction.MIN_BASE_FEE)
+                    .build();
+
+            transaction.sign(issuerKeyPair);
+            endStage(signEvent, true);
+        } catch (RuntimeException e) {
+            // Bad amounts or destinations fail here; the stage is still recorded
+            endStage(signEvent, false);
+            throw e;
+        }
 
         TransactionResponseDTO responseDTO = new TransactionResponseDTO();
 
+        PayoutStageEvent submitEvent = beginStage("SUBMIT", recipient);
+        boolean submitted = false;
         try {
             SubmitTransactionAsyncResponse response = server.submitTransactionAsync(transaction);
             String transactionHash = response.getHash();
             String transactionStatus = response.getTxStatus().toString();
             responseDTO.setTransactionHash(transactionHash);
             responseDTO.setStatus(transactionStatus);
-
-            mailSendingService.sendMail(
+            endStage(submitEvent, true);
+            submitted = true;
+
+            // Sent before responding so mailSent reports what happened; sendMail never throws, so a failed
+            // mail does not turn a submitted payment into an error. On virtual threads the SMTP exchange runs
+            // on the mail executor, since the transport's synchronized I/O would pin this thread
+            PayoutStageEvent mailEvent = beginStage("MAIL", recipient);
+            boolean mailed = mailSendingService.sendMail(
                     stellarTransaction.getRecipientMail(),
                     stellarTransaction.getRecipientName(),
                     stellarTransaction.getProjectTitle(),
@@ -73,10 +102,14 @@ public class PaymentTransactionService {
                     stellarTransaction.getRecipient(),
                     transactionHash
             );
+            endStage(mailEvent, mailed);
 
-            responseDTO.setMailSent(true);
+            responseDTO.setMailSent(mailed);
             return responseDTO;
         } catch (Exception e) {
+            if (!submitted) {
+                endStage(submitEvent, false);
+            }
             responseDTO.setStatus("ERROR");
             responseDTO.setTransactionHash("N/A");
             responseDTO.setMailSent(false);
@@ -85,8 +118,20 @@ public class PaymentTransactionService {
 
     }
 
+    private PayoutStageEvent beginStage(String stage, String recipient) {
+        PayoutStageEvent event = new PayoutStageEvent();
+        event.stage = stage;
+        event.recipient = recipient;
+        event.begin();
+        return event;
+    }
+
+    private void endStage(PayoutStageEvent event, boolean success) {
+        event.success = success;
+        event.commit();
+    }
+
     public String getWalletBalance(String publicKey) throws IOException {
-        Server server = new Server("https://horizon-testnet.stellar.org");
         AccountResponse account = server.accounts().account(publicKey);
         StringBuilder balances = new StringBuilder();
         for (AccountResponse.Balance balance : account.getBalances()) {
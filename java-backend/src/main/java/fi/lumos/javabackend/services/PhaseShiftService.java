@@ -14,13 +14,21 @@ public class PhaseShiftService {
     @Autowired
     public PhaseShiftTrackingRepository phaseShiftTrackingRepository;
 
+    @Autowired
+    private ContinuousEvaluationService continuousEvaluation;
+
     public PhaseState getPhaseShift() {
         return phaseShiftTrackingRepository.findTopByOrderByUpdatedAtDesc();
     }
 
     public PhaseState updatePhase(Phases newPhase){
         PhaseState state = new PhaseState(newPhase, Instant.now());
-        return phaseShiftTrackingRepository.save(state);
+        PhaseState saved = phaseShiftTrackingRepository.save(state);
+
+        if (newPhase == Phases.GroqCheck) {
+            continuousEvaluation.flushRemaining();
+        }
+        return saved;
     }
 
 }
@@ -0,0 +1,98 @@
+package fi.lumos.javabackend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.repository.ProposalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+// Read-through cache in front of ProposalRepository. Proposals rarely change after submission, so
+// reads during voting are served from memory. Entries are weighed by their approximate heap size
+// and evicted with W-TinyLFU once proposal.cache.max-bytes is reached.
+// Cached entities are shared between callers and must not be modified in place.
+
+@Component
+public class ProposalCache {
+
+    private static final int OBJECT_OVERHEAD_BYTES = 160;
+
+    private final ProposalRepository proposalRepository;
+    private final Cache<String, Proposal> cache;
+
+    @Autowired
+    public ProposalCache(ProposalRepository proposalRepository, @Value("${proposal.cache.max-bytes}") long maxBytes) {
+        this.proposalRepository = proposalRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String id, Proposal proposal) -> estimateBytes(proposal))
+                .recordStats()
+                .build();
+    }
+
+    // Loads outside the cache so the Mongo call does not run inside a map-bin monitor, which would
+    // pin a virtual thread; two concurrent misses may both load, which is harmless here
+    public Optional<Proposal> findById(String id) {
+        Proposal cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Proposal> loaded = proposalRepository.findById(id);
+        loaded.ifPresent(proposal -> cache.put(id, proposal));
+        return loaded;
+    }
+
+    public List<Proposal> findAllById(Iterable<String> ids) {
+        Map<String, Proposal> found = cache.getAll(ids, missing -> StreamSupport
+                .stream(proposalRepository.findAllById(new ArrayList<String>(missing)).spliterator(), false)
+                .collect(Collectors.toMap(Proposal::getId, Function.identity())));
+        return new ArrayList<>(found.values());
+    }
+
+    public void putAll(List<Proposal> proposals) {
+        for (Proposal proposal : proposals) {
+            if (proposal.getId() != null) {
+                cache.put(proposal.getId(), proposal);
+            }
+        }
+    }
+
+    public void invalidate(String id) {
+        cache.invalidate(id);
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("entries", cache.estimatedSize());
+        result.put("weightedBytes", cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L));
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    private int estimateBytes(Proposal proposal) {
+        long chars = 0;
+        for (String field : new String[]{proposal.getId(), proposal.getName(), proposal.getEmailId(), proposal.getLinks(),
+                proposal.getProjectTitle(), proposal.getProjectDescription(), proposal.getBrief_summary(),
+                proposal.getPrimaryGoal(), proposal.getSpecificObjective(), proposal.getBudget(),
+                proposal.getLongTermPlan(), proposal.getFutureFundingPlans(), proposal.getStellarWalletAddress(),
+                proposal.getStatus(), proposal.getDuplicateOf()}) {
+            if (field != null) {
+                // Compact strings store Latin-1 text at one byte per char; assume the worst case
+                chars += 40 + 2L * field.length();
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, OBJECT_OVERHEAD_BYTES + chars);
+    }
+
+}
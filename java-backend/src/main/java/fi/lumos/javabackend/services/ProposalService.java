@@ -1,9 +1,14 @@
 package fi.lumos.javabackend.services;
 
 import fi.lumos.javabackend.dto.ProposalRequestDto;
+import fi.lumos.javabackend.dto.ProposalSummaryDTO;
 import fi.lumos.javabackend.entity.Proposal;
 import fi.lumos.javabackend.repository.ProposalRepository;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -16,9 +21,44 @@ public class ProposalService {
     @Autowired
     private ProposalRepository proposalRepository;
 
+    @Autowired
+    private ProposalSimilarityIndex similarityIndex;
+
+    @Autowired
+    private ProposalCache proposalCache;
+
+    @Autowired
+    private ContinuousEvaluationService continuousEvaluation;
+
 
     public Proposal submitProposal(ProposalRequestDto proposalRequestDto) {
+        Proposal proposal = buildProposal(proposalRequestDto);
+        Proposal saved;
+        try {
+            saved = proposalRepository.save(proposal);
+        } catch (RuntimeException e) {
+            onSaveFailed(proposal);
+            throw e;
+        }
+        onSubmitted(saved);
+        return saved;
+    }
+
+    // Post-save hooks shared by this path and the reactive controller's
+    public void onSubmitted(Proposal saved) {
+        proposalCache.invalidate(saved.getId());
+        continuousEvaluation.enqueue(saved);
+    }
+
+    // Undoes buildProposal's similarity registration when the proposal never got stored
+    public void onSaveFailed(Proposal proposal) {
+        similarityIndex.remove(proposal.getId());
+    }
+
+    // Registers the proposal in the similarity index under a pre-assigned id; callers remove it again if the save fails
+    public Proposal buildProposal(ProposalRequestDto proposalRequestDto) {
         Proposal proposal = new Proposal();
+        proposal.setId(new ObjectId().toHexString());
         proposal.setName(proposalRequestDto.getName());
         proposal.setEmailId(proposalRequestDto.getEmailId());
         proposal.setLinks(proposalRequestDto.getLinks());
@@ -33,18 +73,25 @@ public class ProposalService {
         proposal.setStellarWalletAddress(proposalRequestDto.getStellarWalletAddress());
         proposal.setSubmittedAt(Instant.now());
         proposal.setStatus("Submitted");
-        proposalRepository.save(proposal);
-
-
-        return proposalRepository.save(proposal);
+        similarityIndex.register(proposal);
+        return proposal;
     }
 
     public List<Proposal> getAllProposals() {
         return proposalRepository.findAll();
     }
 
+    public List<ProposalSummaryDTO> getProposalSummaries() {
+        return proposalRepository.findAllProjectedBy();
+    }
+
     public Optional<Proposal> getProposalById(String id) {
-        return proposalRepository.findById(id);
+        return proposalCache.findById(id);
+    }
+
+    public Page<Proposal> getProposalsByStatus(String status, Instant from, Instant to, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "submittedAt"));
+        return proposalRepository.findByStatusAndSubmittedAtBetween(status, from, to, pageRequest);
     }
 
 }
@@ -0,0 +1,234 @@
+package fi.lumos.javabackend.services;
+
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.repository.ProposalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory MinHash/LSH index over title, description and summary, used to spot
+// copy-pasted resubmissions. Signatures are split into bands; two proposals become
+// candidates when any band matches, and candidates are confirmed by estimated Jaccard similarity.
+
+@Component
+public class ProposalSimilarityIndex {
+
+    private static final int NUM_HASHES = 128;
+    private static final int BANDS = 32;
+    private static final int ROWS = NUM_HASHES / BANDS;
+    private static final int SHINGLE_SIZE = 3;
+    // Blank or very short text would collapse to the same few shingles and match every other short proposal
+    private static final int MIN_SHINGLES = 5;
+    private static final long PRIME = 2147483647L; // 2^31 - 1, keeps every hash a non-negative int
+
+    private final long[] hashA = new long[NUM_HASHES];
+    private final long[] hashB = new long[NUM_HASHES];
+
+    private final Map<String, int[]> signatures = new HashMap<>();
+    private final Map<String, String> representatives = new HashMap<>();
+    private final List<Map<Integer, List<String>>> bandBuckets = new ArrayList<>(BANDS);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    private ProposalRepository proposalRepository;
+
+    @Value("${proposal.similarity.threshold}")
+    private double threshold;
+    @Value("${proposal.similarity.build-on-startup}")
+    private boolean buildOnStartup;
+
+    public ProposalSimilarityIndex() {
+        Random random = new Random(42);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            hashA[i] = 1 + random.nextInt(Integer.MAX_VALUE);
+            hashB[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+        for (int i = 0; i < BANDS; i++) {
+            bandBuckets.add(new HashMap<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        if (!buildOnStartup) {
+            return;
+        }
+        List<Proposal> proposals;
+        try {
+            proposals = proposalRepository.findAll();
+        } catch (RuntimeException e) {
+            // An exception here would shut the application down; new submissions still get indexed
+            System.err.println("Similarity index not built, proposals could not be loaded: " + e.getMessage());
+            return;
+        }
+        proposals.sort(Comparator.comparing(Proposal::getSubmittedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+        for (Proposal proposal : proposals) {
+            add(proposal);
+        }
+        System.out.println("Similarity index built for " + proposals.size() + " proposals");
+    }
+
+    // Returns the representative of the closest existing cluster, if any proposal is similar enough
+    public Optional<String> findRepresentative(Proposal proposal) {
+        Set<Integer> shingles = shingles(proposal);
+        if (shingles.size() < MIN_SHINGLES) {
+            return Optional.empty();
+        }
+        int[] signature = signature(shingles);
+
+        lock.readLock().lock();
+        try {
+            return bestRepresentative(signature);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Looks for a match and indexes the proposal under one write lock, setting duplicateOf when it matched.
+    // Two near-identical proposals submitted together therefore can't both miss each other and both
+    // become originals. The proposal needs its id already; call remove if it is then not saved.
+    public Optional<String> register(Proposal proposal) {
+        Set<Integer> shingles = shingles(proposal);
+        if (proposal.getId() == null || shingles.size() < MIN_SHINGLES) {
+            return Optional.empty();
+        }
+        int[] signature = signature(shingles);
+
+        lock.writeLock().lock();
+        try {
+            Optional<String> representative = bestRepresentative(signature);
+            representative.ifPresent(proposal::setDuplicateOf);
+            insert(proposal.getId(), signature, representative.orElse(proposal.getId()));
+            return representative;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(Proposal proposal) {
+        Set<Integer> shingles = shingles(proposal);
+        if (proposal.getId() == null || shingles.size() < MIN_SHINGLES) {
+            return;
+        }
+        int[] signature = signature(shingles);
+        String representative = proposal.getDuplicateOf() != null ? proposal.getDuplicateOf() : proposal.getId();
+
+        lock.writeLock().lock();
+        try {
+            insert(proposal.getId(), signature, representative);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String proposalId) {
+        lock.writeLock().lock();
+        try {
+            int[] signature = signatures.remove(proposalId);
+            if (signature == null) {
+                return;
+            }
+            representatives.remove(proposalId);
+            for (int band = 0; band < BANDS; band++) {
+                int key = bandKey(signature, band);
+                List<String> bucket = bandBuckets.get(band).get(key);
+                if (bucket != null) {
+                    bucket.remove(proposalId);
+                    if (bucket.isEmpty()) {
+                        bandBuckets.get(band).remove(key);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Callers hold the read or write lock
+    private Optional<String> bestRepresentative(int[] signature) {
+        String bestMatch = null;
+        double bestSimilarity = threshold;
+        for (String candidate : candidates(signature)) {
+            double similarity = estimateSimilarity(signature, signatures.get(candidate));
+            if (similarity >= bestSimilarity) {
+                bestSimilarity = similarity;
+                bestMatch = candidate;
+            }
+        }
+        return Optional.ofNullable(bestMatch).map(representatives::get);
+    }
+
+    // Callers hold the write lock
+    private void insert(String proposalId, int[] signature, String representative) {
+        if (signatures.putIfAbsent(proposalId, signature) != null) {
+            return;
+        }
+        representatives.put(proposalId, representative);
+        for (int band = 0; band < BANDS; band++) {
+            bandBuckets.get(band).computeIfAbsent(bandKey(signature, band), key -> new ArrayList<>()).add(proposalId);
+        }
+    }
+
+    private Set<String> candidates(int[] signature) {
+        Set<String> candidates = new HashSet<>();
+        for (int band = 0; band < BANDS; band++) {
+            List<String> bucket = bandBuckets.get(band).get(bandKey(signature, band));
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+        return candidates;
+    }
+
+    private int bandKey(int[] signature, int band) {
+        int key = 1;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = 31 * key + signature[row];
+        }
+        return key;
+    }
+
+    private double estimateSimilarity(int[] a, int[] b) {
+        int matches = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) matches++;
+        }
+        return (double) matches / NUM_HASHES;
+    }
+
+    private int[] signature(Set<Integer> shingles) {
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        for (int shingle : shingles) {
+            long x = shingle & 0xffffffffL;
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int h = (int) ((hashA[i] * x + hashB[i]) % PRIME);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private Set<Integer> shingles(Proposal proposal) {
+        String text = String.join(" ",
+                Objects.toString(proposal.getProjectTitle(), ""),
+                Objects.toString(proposal.getProjectDescription(), ""),
+                Objects.toString(proposal.getBrief_summary(), ""));
+        String[] tokens = text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim().split(" ");
+
+        Set<Integer> shingles = new HashSet<>();
+        for (int i = 0; i + SHINGLE_SIZE <= tokens.length; i++) {
+            shingles.add(String.join(" ", Arrays.copyOfRange(tokens, i, i + SHINGLE_SIZE)).hashCode());
+        }
+        return shingles;
+    }
+
+}
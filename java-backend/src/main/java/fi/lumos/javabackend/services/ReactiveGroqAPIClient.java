@@ -0,0 +1,55 @@
+package fi.lumos.javabackend.services;
+
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.entity.ProposalScore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+//Non-blocking counterpart of GroqAPIClient, used when app.reactive.enabled=true
+
+@Component
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveGroqAPIClient {
+
+    private final WebClient webClient;
+    private final GroqAPIClient groqAPIClient;
+    private final Duration timeout;
+
+    @Autowired
+    public ReactiveGroqAPIClient(WebClient.Builder webClientBuilder, GroqAPIClient groqAPIClient,
+                                 @Value("${groq.url}") String groqUrl,
+                                 @Value("${api.key}") String groqApiKey,
+                                 @Value("${groq.reactive.timeout-seconds}") long timeoutSeconds) {
+        this.webClient = webClientBuilder
+                .baseUrl(groqUrl)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + groqApiKey)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+        this.groqAPIClient = groqAPIClient;
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+    }
+
+    public Mono<List<ProposalScore>> sendBatch(List<Proposal> batch) {
+        return Mono.fromCallable(() -> groqAPIClient.buildRequestBody(batch))
+                .flatMap(body -> webClient.post()
+                        .bodyValue(body)
+                        .retrieve()
+                        .bodyToMono(String.class))
+                .timeout(timeout)
+                .map(response -> groqAPIClient.parseResponse(response, batch))
+                .onErrorResume(e -> {
+                    System.err.println("Groq API failed: " + e.getMessage());
+                    return Mono.just(List.of());
+                });
+    }
+
+}
@@ -0,0 +1,117 @@
+package fi.lumos.javabackend.services;
+
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.entity.ProposalScore;
+import fi.lumos.javabackend.jfr.EvaluationBatchEvent;
+import fi.lumos.javabackend.jfr.RankingEvent;
+import fi.lumos.javabackend.repository.reactive.ReactiveProposalScoreRepository;
+import fi.lumos.javabackend.services.prescreen.PreScreenResult;
+import fi.lumos.javabackend.services.prescreen.ProposalPreScreener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveGroqEvaluation {
+
+    @Autowired
+    private ReactiveGroqAPIClient groqAPIClient;
+    @Autowired
+    private ReactiveProposalScoreRepository proposalScoreRepository;
+    @Autowired
+    private GroqEvaluation groqEvaluation;
+    @Autowired
+    private WebSocketProgressSender progressSender;
+    @Autowired
+    private ProposalPreScreener preScreener;
+
+    // Upper bound on batches waiting on Groq at once; flatMap only requests more batches as these complete
+    @Value("${groq.reactive.max-in-flight-batches}")
+    private int maxInFlightBatches;
+
+    // Set until the background run has ranked or failed; a second /evaluation/start is refused meanwhile
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Starts the run in the background, with progress reported over /topic/progress. Returns false,
+    // starting nothing, while an earlier run is still going
+    public boolean startRun(List<Proposal> proposals) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        processProposals(proposals)
+                .doOnError(e -> System.err.println("Reactive evaluation run failed: " + e.getMessage()))
+                .onErrorComplete()
+                .doFinally(signal -> running.set(false))
+                .subscribe();
+        return true;
+    }
+
+    public Mono<Void> processProposals(List<Proposal> proposals) {
+        PreScreenResult screened = preScreener.screen(proposals);
+        Map<String, List<String>> duplicates = groqEvaluation.groupDuplicates(screened.getPassed());
+        List<List<Proposal>> batches = groqEvaluation.splitIntoBatches(groqEvaluation.withoutDuplicates(screened.getPassed(), duplicates), 5);
+        int total = batches.size();
+        AtomicInteger completed = new AtomicInteger(0);
+
+        if (total == 0) {
+            return proposalScoreRepository.upsertAll(screened.getRejected())
+                    .then(Mono.fromRunnable(() -> progressSender.sendProgress(100)))
+                    .then(rankProposals());
+        }
+
+        return proposalScoreRepository.upsertAll(screened.getRejected())
+                .thenMany(Flux.fromIterable(batches))
+                .flatMap(batch -> Mono.defer(() -> {
+                    // Begun on subscription, so the event covers only the time this batch was in flight
+                    EvaluationBatchEvent event = new EvaluationBatchEvent();
+                    event.begin();
+                    return groqAPIClient.sendBatch(batch)
+                            .map(scores -> groqEvaluation.withDuplicateScores(scores, duplicates))
+                            .flatMap(scores -> proposalScoreRepository.upsertAll(scores).thenReturn((long) scores.size()))
+                            .doOnNext(saved -> {
+                                int finished = completed.incrementAndGet();
+                                int progress = (int) (((double) finished / total) * 100);
+                                progressSender.sendProgress(progress);
+
+                                event.mode = "reactive";
+                                event.batchSize = batch.size();
+                                event.scoresSaved = saved.intValue();
+                                event.completed = finished;
+                                event.total = total;
+                                event.commit();
+                            });
+                }), maxInFlightBatches)
+                .then(rankProposals());
+    }
+
+    public Mono<Void> rankProposals() {
+        return Mono.defer(() -> {
+            RankingEvent event = new RankingEvent();
+            event.begin();
+            return proposalScoreRepository.findAll()
+                    .sort(GroqEvaluation.RANKING_ORDER)
+                    .index()
+                    .map(indexed -> {
+                        ProposalScore score = indexed.getT2();
+                        score.setRank(indexed.getT1().intValue() + 1);
+                        return score;
+                    })
+                    .collectList()
+                    .flatMap(ranked -> proposalScoreRepository.saveAll(ranked).then()
+                            .doOnSuccess(ignored -> {
+                                event.scoresRanked = ranked.size();
+                                event.commit();
+                            }));
+        });
+    }
+
+}
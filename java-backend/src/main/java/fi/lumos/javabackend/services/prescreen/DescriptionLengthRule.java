@@ -0,0 +1,26 @@
+package fi.lumos.javabackend.services.prescreen;
+
+import fi.lumos.javabackend.entity.Proposal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@Order(4)
+public class DescriptionLengthRule implements PreScreenRule {
+
+    @Value("${groq.prescreen.min-description-words}")
+    private int minWords;
+
+    @Override
+    public Optional<String> check(Proposal proposal) {
+        String description = proposal.getProjectDescription();
+        int words = description == null || description.isBlank() ? 0 : description.trim().split("\\s+").length;
+        if (words < minWords) {
+            return Optional.of("Project description has " + words + " words, at least " + minWords + " required");
+        }
+        return Optional.empty();
+    }
+}
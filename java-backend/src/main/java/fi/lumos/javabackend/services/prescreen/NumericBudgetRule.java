@@ -0,0 +1,32 @@
+package fi.lumos.javabackend.services.prescreen;
+
+import fi.lumos.javabackend.entity.Proposal;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+@Component
+@Order(2)
+public class NumericBudgetRule implements PreScreenRule {
+
+    @Override
+    public Optional<String> check(Proposal proposal) {
+        String budget = proposal.getBudget();
+        if (budget == null || budget.isBlank()) {
+            return Optional.of("Missing budget");
+        }
+
+        // Accept "5,000", "$5000" or "5000 XLM"
+        String amount = budget.replaceAll("(?i)xlm|[,\\s$]", "");
+        try {
+            if (new BigDecimal(amount).signum() <= 0) {
+                return Optional.of("Budget must be positive");
+            }
+        } catch (NumberFormatException e) {
+            return Optional.of("Budget is not a number: " + budget);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,17 @@
+package fi.lumos.javabackend.services.prescreen;
+
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.entity.ProposalScore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class PreScreenResult {
+
+    private List<Proposal> passed;
+    private List<ProposalScore> rejected;
+
+}
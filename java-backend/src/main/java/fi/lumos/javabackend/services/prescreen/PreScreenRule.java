@@ -0,0 +1,14 @@
+package fi.lumos.javabackend.services.prescreen;
+
+import fi.lumos.javabackend.entity.Proposal;
+
+import java.util.Optional;
+
+// A cheap local check run before a proposal is sent to Groq. Any @Component implementing
+// this is picked up by ProposalPreScreener, in @Order; the first failing rule gives the rejection reason.
+public interface PreScreenRule {
+
+    // Returns the rejection reason, or empty if the proposal passes
+    Optional<String> check(Proposal proposal);
+
+}
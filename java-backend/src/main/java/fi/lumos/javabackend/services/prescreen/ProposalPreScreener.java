@@ -0,0 +1,68 @@
+package fi.lumos.javabackend.services.prescreen;
+
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.entity.ProposalScore;
+import fi.lumos.javabackend.entity.Score;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Runs every PreScreenRule before evaluation. Proposals failing a rule never reach Groq and
+// get a fixed zero score instead, so one malformed record cannot fail a whole batch.
+
+@Component
+public class ProposalPreScreener {
+
+    @Autowired
+    private List<PreScreenRule> rules;
+
+    @Value("${groq.prescreen.enabled}")
+    private boolean enabled;
+
+    public PreScreenResult screen(List<Proposal> proposals) {
+        if (!enabled) {
+            return new PreScreenResult(proposals, List.of());
+        }
+
+        List<Proposal> passed = new ArrayList<>();
+        List<ProposalScore> rejected = new ArrayList<>();
+        for (Proposal proposal : proposals) {
+            Optional<String> reason = firstFailure(proposal);
+            if (reason.isPresent()) {
+                rejected.add(rejectScore(proposal, reason.get()));
+            } else {
+                passed.add(proposal);
+            }
+        }
+
+        if (!rejected.isEmpty()) {
+            System.out.println("Pre-screen rejected " + rejected.size() + " of " + proposals.size() + " proposals");
+        }
+        return new PreScreenResult(passed, rejected);
+    }
+
+    private Optional<String> firstFailure(Proposal proposal) {
+        for (PreScreenRule rule : rules) {
+            Optional<String> reason = rule.check(proposal);
+            if (reason.isPresent()) {
+                return reason;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private ProposalScore rejectScore(Proposal proposal, String reason) {
+        ProposalScore score = new ProposalScore();
+        score.setProposalId(proposal.getId());
+        score.setScore(new Score());
+        score.setEvaluatedAt(Instant.now());
+        score.setRejectionReason(reason);
+        return score;
+    }
+
+}
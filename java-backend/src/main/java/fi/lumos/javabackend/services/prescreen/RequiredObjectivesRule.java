@@ -0,0 +1,27 @@
+package fi.lumos.javabackend.services.prescreen;
+
+import fi.lumos.javabackend.entity.Proposal;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@Order(1)
+public class RequiredObjectivesRule implements PreScreenRule {
+
+    @Override
+    public Optional<String> check(Proposal proposal) {
+        if (isBlank(proposal.getProjectTitle())) {
+            return Optional.of("Missing project title");
+        }
+        if (isBlank(proposal.getPrimaryGoal()) || isBlank(proposal.getSpecificObjective())) {
+            return Optional.of("Missing primary goal or specific objective");
+        }
+        return Optional.empty();
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,28 @@
+package fi.lumos.javabackend.services.prescreen;
+
+import fi.lumos.javabackend.entity.Proposal;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.stellar.sdk.KeyPair;
+
+import java.util.Optional;
+
+@Component
+@Order(3)
+public class StellarWalletRule implements PreScreenRule {
+
+    @Override
+    public Optional<String> check(Proposal proposal) {
+        String wallet = proposal.getStellarWalletAddress();
+        if (wallet == null || wallet.isBlank()) {
+            return Optional.of("Missing Stellar wallet address");
+        }
+
+        try {
+            KeyPair.fromAccountId(wallet.trim());
+        } catch (RuntimeException e) {
+            return Optional.of("Invalid Stellar wallet address");
+        }
+        return Optional.empty();
+    }
+}
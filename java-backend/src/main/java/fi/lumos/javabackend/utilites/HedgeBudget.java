@@ -0,0 +1,52 @@
+package fi.lumos.javabackend.utilites;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Caps hedged requests at maxRatio of the most recent primary calls, so the budget follows current
+// traffic instead of everything since startup. A ratio of 0 never allows a hedge.
+public class HedgeBudget {
+    private final boolean[] hedged;
+    private final double maxRatio;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long calls;
+    private int hedges;
+
+    public HedgeBudget(int window, double maxRatio) {
+        this.hedged = new boolean[window];
+        this.maxRatio = maxRatio;
+    }
+
+    // Returns the call's sequence number, which tryHedge needs to charge the hedge to that call
+    public long recordCall() {
+        lock.lock();
+        try {
+            int slot = (int) (calls % hedged.length);
+            if (hedged[slot]) {
+                hedges--;
+                hedged[slot] = false;
+            }
+            return calls++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean tryHedge(long call) {
+        lock.lock();
+        try {
+            // The call has already dropped out of the window
+            if (calls - call > hedged.length) {
+                return false;
+            }
+            long inWindow = Math.min(calls, hedged.length);
+            if (hedges >= (long) (inWindow * maxRatio)) {
+                return false;
+            }
+            hedged[(int) (call % hedged.length)] = true;
+            hedges++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package fi.lumos.javabackend.utilites;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Keeps the most recent latencies in a ring buffer so percentiles follow current conditions
+public class LatencyWindow {
+    private final long[] samples;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int next;
+    private int size;
+
+    public LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public void record(long millis) {
+        lock.lock();
+        try {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long percentile(double p) {
+        long[] sorted;
+        lock.lock();
+        try {
+            if (size == 0) {
+                return 0;
+            }
+            sorted = Arrays.copyOf(samples, size);
+        } finally {
+            lock.unlock();
+        }
+        // Sort the copy outside the lock so recorders are not held up
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,38 @@
+package fi.lumos.javabackend.utilites;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+public class TokenBucket {
+    private final long capacity;
+    private final double refillPerNano;
+    // A ReentrantLock rather than synchronized so virtual threads are not pinned while they wait
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(long capacity, long refillPerMinute) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerMinute / 60_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    // Returns 0 if a token was taken, otherwise the nanoseconds until one becomes available
+    public long tryConsume() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / refillPerNano);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
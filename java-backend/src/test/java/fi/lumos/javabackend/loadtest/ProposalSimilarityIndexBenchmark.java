@@ -0,0 +1,68 @@
+package fi.lumos.javabackend.loadtest;
+
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.services.ProposalSimilarityIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Average similarity lookup time with a voting day's worth of proposals indexed. Wall-clock, so it runs
+// with the load tests rather than in the normal build:
+//   mvn -Ploadtest test -Dtest=ProposalSimilarityIndexBenchmark -Dsimilaritybench.proposals=10000
+
+@Tag("loadtest")
+class ProposalSimilarityIndexBenchmark {
+
+    private static final int PROPOSALS = Integer.getInteger("similaritybench.proposals", 10_000);
+    private static final int LOOKUPS = Integer.getInteger("similaritybench.lookups", 2_000);
+
+    private static final String[] VOCABULARY = ("stellar wallet grant community education solar water farm market "
+            + "school health data open source network payment mobile rural youth climate energy local training "
+            + "platform research tool library transparent ledger donor impact village cooperative savings loan "
+            + "women digital literacy clinic supply chain recycling waste transport bridge").split(" ");
+
+    private final Random random = new Random(7);
+
+    @Test
+    void lookupIsSubMillisecond() {
+        ProposalSimilarityIndex index = new ProposalSimilarityIndex();
+        ReflectionTestUtils.setField(index, "threshold", 0.8);
+
+        List<Proposal> proposals = new ArrayList<>();
+        for (int i = 0; i < PROPOSALS; i++) {
+            Proposal proposal = new Proposal();
+            proposal.setId("p" + i);
+            proposal.setProjectDescription(text(80));
+            proposals.add(proposal);
+            index.add(proposal);
+        }
+
+        // Warm-up so the JIT has compiled the lookup path before it is timed
+        for (int i = 0; i < 500; i++) {
+            index.findRepresentative(proposals.get(i % proposals.size()));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            index.findRepresentative(proposals.get(i % proposals.size()));
+        }
+        double averageMillis = (System.nanoTime() - start) / 1_000_000d / LOOKUPS;
+
+        System.out.println(String.format("%n==== Similarity index: %d lookups over %d proposals, average %.3f ms ====%n",
+                LOOKUPS, PROPOSALS, averageMillis));
+        assertTrue(averageMillis < 1, "Average lookup took " + averageMillis + " ms");
+    }
+
+    private String text(int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sb.append(i == 0 ? "" : " ").append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+        }
+        return sb.toString();
+    }
+}
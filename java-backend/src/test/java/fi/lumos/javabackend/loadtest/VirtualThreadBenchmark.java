@@ -0,0 +1,407 @@
+package fi.lumos.javabackend.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import fi.lumos.javabackend.config.ExecutorConfig;
+import fi.lumos.javabackend.dto.StellarTransaction;
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.services.GroqAPIClient;
+import fi.lumos.javabackend.services.MailSendingService;
+import fi.lumos.javabackend.services.PaymentTransactionService;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Compares Tomcat on its platform-thread pool with Tomcat on virtual threads when every request blocks
+// on slow outbound calls. Requests go through embedded Tomcat into the real GroqAPIClient (evaluation)
+// and PaymentTransactionService (Horizon account fetch, memo check, submit, then mail over the real SMTP
+// transport); local stubs stand in for Groq, Horizon and the mail server. The client keeps the same number
+// of requests in flight against both modes, while Tomcat keeps its default 200-thread pool in platform mode,
+// as in production. Also counts jdk.VirtualThreadPinned events from the virtual run; set
+// threadbench.mail-offload=false to send mail on the virtual request threads and see the SMTP pinning.
+// Excluded from the normal build; run on JDK 21 with:
+//   mvn -Pjdk21,threadbench test -Dthreadbench.calls=5000 -Dthreadbench.concurrency=1000 \
+//       -Dthreadbench.groq-delay-ms=800 -Dthreadbench.horizon-delay-ms=300 -Dthreadbench.mail-delay-ms=200
+
+@Tag("threadbench")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadBenchmark {
+
+    private static final int CALLS = Integer.getInteger("threadbench.calls", 2000);
+    // Requests the client keeps in flight; well above Tomcat's default 200 threads so the pool is the limit
+    private static final int CONCURRENCY = Integer.getInteger("threadbench.concurrency", 1000);
+    private static final int GROQ_DELAY_MS = Integer.getInteger("threadbench.groq-delay-ms", 800);
+    private static final int HORIZON_DELAY_MS = Integer.getInteger("threadbench.horizon-delay-ms", 300);
+    private static final int MAIL_DELAY_MS = Integer.getInteger("threadbench.mail-delay-ms", 200);
+    private static final boolean MAIL_OFFLOAD = Boolean.parseBoolean(System.getProperty("threadbench.mail-offload", "true"));
+    // Platform threads behind the mail executor in the virtual run, matching Tomcat's pool in the platform run
+    private static final int MAIL_THREADS = Integer.getInteger("threadbench.mail-threads", 200);
+
+    private static final String ISSUER_SECRET = "SAAQCAIBAEAQCAIBAEAQCAIBAEAQCAIBAEAQCAIBAEAQCAIBAEAQC5MY";
+    private static final String RECIPIENT = "GAAQEAYEAEBAGBABAIBQIAICAMCACAQDAQAQEAYEAEBAGBABAIBQJTGM";
+
+    private static HttpServer stub;
+    private static ServerSocket smtpStub;
+    private static SimpleAsyncTaskExecutor stubExecutor;
+    private static SimpleAsyncTaskExecutor clientExecutor;
+    private static String stubBase;
+
+    private GroqAPIClient groqClient;
+    private PaymentTransactionService paymentService;
+    private HttpClient httpClient;
+
+    @BeforeAll
+    static void startStub() throws Exception {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 8192);
+        stub.createContext("/groq", exchange -> respond(exchange, GROQ_DELAY_MS, 200, groqResponse()));
+        stub.createContext("/accounts/", exchange -> {
+            String accountId = exchange.getRequestURI().getPath().substring("/accounts/".length());
+            respond(exchange, HORIZON_DELAY_MS, 200, account(accountId));
+        });
+        stub.createContext("/transactions_async", exchange -> respond(exchange, HORIZON_DELAY_MS, 201,
+                new JSONObject().put("tx_status", "PENDING").put("hash", "00".repeat(32)).toString()));
+        // The stub must never be the bottleneck, so it sleeps on virtual threads regardless of the mode under test
+        stubExecutor = new SimpleAsyncTaskExecutor("stub-");
+        stubExecutor.setVirtualThreads(true);
+        stub.setExecutor(stubExecutor);
+        stub.start();
+        stubBase = "http://localhost:" + stub.getAddress().getPort();
+
+        smtpStub = new ServerSocket(0, 8192, InetAddress.getLoopbackAddress());
+        stubExecutor.execute(() -> {
+            while (!smtpStub.isClosed()) {
+                try {
+                    Socket socket = smtpStub.accept();
+                    stubExecutor.execute(() -> smtpSession(socket));
+                } catch (IOException e) {
+                    // Closed in stopStub
+                }
+            }
+        });
+
+        // Nor the client: its threads are virtual too, so only the server side shows up in the thread counts
+        clientExecutor = new SimpleAsyncTaskExecutor("client-");
+        clientExecutor.setVirtualThreads(true);
+    }
+
+    @AfterAll
+    static void stopStub() throws IOException {
+        stub.stop(0);
+        smtpStub.close();
+        stubExecutor.close();
+        clientExecutor.close();
+    }
+
+    @Test
+    void platformPoolAndVirtualThreadsAtEqualClientConcurrency() throws Exception {
+        groqClient = groqClient();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(clientExecutor)
+                .build();
+
+        paymentService = paymentService(new SyncTaskExecutor());
+        Result platform = run("platform", false);
+
+        // What ExecutorConfig.mailExecutor gives a virtual-thread deployment
+        AsyncTaskExecutor mailPool = ExecutorConfig.create("bench-mail-", false, MAIL_THREADS);
+        paymentService = paymentService(MAIL_OFFLOAD ? mailPool : new SyncTaskExecutor());
+
+        Path jfrFile = Files.createTempFile("threadbench", ".jfr");
+        Result virtual;
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(20)).withStackTrace();
+            recording.start();
+            virtual = run("virtual", true);
+            recording.dump(jfrFile);
+        } finally {
+            if (mailPool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        long pinned = RecordingFile.readAllEvents(jfrFile).stream()
+                .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                .count();
+        Files.deleteIfExists(jfrFile);
+
+        System.out.println(String.format("%n==== Thread benchmark: %d requests, %d in flight (Groq %d ms / Horizon %d ms / SMTP %d ms) ====%n"
+                        + "%-9s %10s %8s %10s %10s %10s %12s%n%s%n%s%n"
+                        + "Virtual threads pinned for more than 20 ms (mail offload %s): %d%n",
+                CALLS, CONCURRENCY, GROQ_DELAY_MS, HORIZON_DELAY_MS, MAIL_DELAY_MS,
+                "mode", "wall ms", "errors", "calls/s", "p50 ms", "p99 ms", "peak threads",
+                platform, virtual, MAIL_OFFLOAD ? "on" : "off", pinned));
+
+        assertEquals(0, platform.errors);
+        assertEquals(0, virtual.errors);
+    }
+
+    private Result run(String mode, boolean virtual) throws Exception {
+        WebServer tomcat = tomcat(virtual);
+        tomcat.start();
+        String base = "http://localhost:" + tomcat.getPort();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+
+        AtomicLongArray latencies = new AtomicLongArray(CALLS);
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(CALLS);
+        // The same limiter the evaluation executor uses, so at most CONCURRENCY requests are in flight
+        AsyncTaskExecutor client = ExecutorConfig.create("bench-" + mode + "-", true, CONCURRENCY);
+
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < CALLS; i++) {
+                // Alternate evaluation requests (one Groq call) and payout requests (Horizon calls + mail)
+                String path = i % 2 == 0 ? "/evaluate" : "/payout";
+                int index = i;
+                client.execute(() -> {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                                .timeout(Duration.ofSeconds(120)).POST(HttpRequest.BodyPublishers.noBody()).build();
+                        if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies.set(index, System.nanoTime() - sent);
+                        done.countDown();
+                    }
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.MINUTES), mode + " run did not finish");
+        } finally {
+            tomcat.stop();
+            if (client instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        long wallNanos = System.nanoTime() - start;
+
+        long[] sorted = new long[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        return new Result(mode, TimeUnit.NANOSECONDS.toMillis(wallNanos), errors.get(),
+                CALLS / (wallNanos / 1_000_000_000d), percentile(sorted, 0.50), percentile(sorted, 0.99),
+                threads.getPeakThreadCount());
+    }
+
+    // Mirrors what spring.threads.virtual.enabled does to Tomcat; platform mode keeps Tomcat's default pool
+    private WebServer tomcat(boolean virtual) {
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        if (virtual) {
+            factory.addProtocolHandlerCustomizers(protocolHandler -> protocolHandler.setExecutor(new VirtualThreadExecutor("bench-tomcat-")));
+        }
+        return factory.getWebServer(servletContext -> servletContext.addServlet("bench", new BenchServlet()).addMapping("/*"));
+    }
+
+    private class BenchServlet extends HttpServlet {
+        @Override
+        protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            boolean ok = switch (request.getRequestURI()) {
+                case "/evaluate" -> !groqClient.sendBatch(batch()).isEmpty();
+                case "/payout" -> !"ERROR".equals(paymentService.sendXlm(
+                        new StellarTransaction(RECIPIENT, "10", "winner@example.com", "Winner", "Bench project")).getStatus());
+                default -> false;
+            };
+            response.setStatus(ok ? 200 : 500);
+        }
+    }
+
+    private GroqAPIClient groqClient() {
+        GroqAPIClient client = new GroqAPIClient(200, 0);
+        ReflectionTestUtils.setField(client, "groqUrl", stubBase + "/groq");
+        ReflectionTestUtils.setField(client, "groqApiKey", "bench");
+        ReflectionTestUtils.setField(client, "requestTimeoutSeconds", 120L);
+        ReflectionTestUtils.setField(client, "hedgingEnabled", false);
+        return client;
+    }
+
+    private PaymentTransactionService paymentService(TaskExecutor mailExecutor) {
+        PaymentTransactionService service = new PaymentTransactionService(ISSUER_SECRET, stubBase);
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(smtpStub.getLocalPort());
+        Properties properties = new Properties();
+        properties.put("mail.from", "bench@lumos.org");
+        properties.put("mail.smtp.timeout", "120000");
+        sender.setJavaMailProperties(properties);
+
+        MailSendingService mail = new MailSendingService();
+        mail.javaMailSender = sender;
+        mail.mailExecutor = mailExecutor;
+        service.mailSendingService = mail;
+        return service;
+    }
+
+    // Just enough SMTP for JavaMailSenderImpl; the delay is spent after the message body, as a real server
+    // would while accepting it, so the client sits in SMTPTransport's synchronized I/O meanwhile
+    private static void smtpSession(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), false, StandardCharsets.US_ASCII)) {
+            reply(out, "220 localhost bench SMTP");
+            String line;
+            boolean data = false;
+            while ((line = in.readLine()) != null) {
+                if (data) {
+                    if (line.equals(".")) {
+                        data = false;
+                        Thread.sleep(MAIL_DELAY_MS);
+                        reply(out, "250 queued");
+                    }
+                    continue;
+                }
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "DATA" -> {
+                        data = true;
+                        reply(out, "354 end with .");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void reply(PrintWriter out, String line) {
+        out.print(line + "\r\n");
+        out.flush();
+    }
+
+    private static List<Proposal> batch() {
+        List<Proposal> batch = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Proposal proposal = new Proposal();
+            proposal.setId("p" + i);
+            proposal.setProjectTitle("Project " + i);
+            batch.add(proposal);
+        }
+        return batch;
+    }
+
+    private static String groqResponse() {
+        JSONObject score = new JSONObject().put("clarity", 70).put("feasibility", 60).put("impact", 80)
+                .put("innovation", 50).put("total", 65);
+        String content = "```" + new JSONArray().put(new JSONObject().put("proposalId", "p1").put("score", score)) + "```";
+        return new JSONObject().put("choices", new JSONArray().put(new JSONObject()
+                .put("message", new JSONObject().put("content", content)))).toString();
+    }
+
+    // Minimal Horizon account record; the same one serves the issuer fetch and the recipient memo check
+    private static String account(String accountId) {
+        return new JSONObject()
+                .put("id", accountId)
+                .put("account_id", accountId)
+                .put("paging_token", accountId)
+                .put("sequence", "1")
+                .put("subentry_count", 0)
+                .put("last_modified_ledger", 1)
+                .put("thresholds", new JSONObject().put("low_threshold", 0).put("med_threshold", 0).put("high_threshold", 0))
+                .put("flags", new JSONObject().put("auth_required", false).put("auth_revocable", false)
+                        .put("auth_immutable", false).put("auth_clawback_enabled", false))
+                .put("balances", new JSONArray().put(new JSONObject().put("asset_type", "native").put("balance", "10000.0000000")
+                        .put("buying_liabilities", "0.0000000").put("selling_liabilities", "0.0000000")))
+                .put("signers", new JSONArray().put(new JSONObject().put("key", accountId).put("weight", 1).put("type", "ed25519_public_key")))
+                .put("data", new JSONObject())
+                .put("num_sponsoring", 0)
+                .put("num_sponsored", 0)
+                .toString();
+    }
+
+    private static void respond(HttpExchange exchange, int delayMs, int status, String body) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000d;
+    }
+
+    private record Result(String mode, long wallMillis, long errors, double callsPerSecond,
+                          double p50Millis, double p99Millis, int peakThreads) {
+        @Override
+        public String toString() {
+            return String.format("%-9s %10d %8d %10.1f %10.2f %10.2f %12d",
+                    mode, wallMillis, errors, callsPerSecond, p50Millis, p99Millis, peakThreads);
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package fi.lumos.javabackend.loadtest;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import fi.lumos.javabackend.JavaBackendApplication;
+import fi.lumos.javabackend.entity.PhaseState;
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.entity.ProposalScore;
+import fi.lumos.javabackend.entity.Score;
+import fi.lumos.javabackend.enums.Phases;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Reproduces voting-day traffic against a throwaway Mongo container and prints latency percentiles,
+// throughput and heap/GC figures. The application runs in its own JVM so heap and GC numbers (read
+// over JMX) cover only the server, not the load generator. Excluded from the normal build; run with:
+//   mvn -Ploadtest test -Dloadtest.proposals=2000 -Dloadtest.duration-seconds=60 -Dloadtest.concurrency=64 \
+//       -Dloadtest.subscribers=500 -Dloadtest.mix=allproposals=40,rankings=40,phase=15,submit=5 \
+//       -Dloadtest.server-jvm-args="-Xmx512m -XX:+UseG1GC"
+
+@Tag("loadtest")
+@Testcontainers
+class VotingDayLoadTest {
+
+    @Container
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    private static final String DATABASE = "lumos_loadtest";
+    private static final int PROPOSALS = Integer.getInteger("loadtest.proposals", 500);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 30);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 32);
+    private static final int SUBSCRIBERS = Integer.getInteger("loadtest.subscribers", 100);
+    private static final String MIX = System.getProperty("loadtest.mix", "allproposals=40,rankings=40,phase=15,submit=5");
+    private static final String SERVER_JVM_ARGS = System.getProperty("loadtest.server-jvm-args", "-Xmx1g");
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private Process server;
+    private int port;
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) {
+            server.destroy();
+        }
+    }
+
+    @Test
+    void votingDayTraffic() throws Exception {
+        seed();
+        int jmxPort = freePort();
+        startServer(jmxPort);
+
+        List<String> endpoints = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String entry : MIX.split(",")) {
+            String[] parts = entry.split("=");
+            endpoints.add(parts[0].trim());
+            weights.add(Integer.parseInt(parts[1].trim()));
+        }
+        int totalWeight = weights.stream().mapToInt(Integer::intValue).sum();
+
+        StompLoad stompLoad = connectSubscribers();
+
+        try (JMXConnector jmx = JMXConnectorFactory.connect(new JMXServiceURL("service:jmx:rmi:///jndi/rmi://localhost:" + jmxPort + "/jmxrmi"))) {
+            MBeanServerConnection connection = jmx.getMBeanServerConnection();
+            MemoryMXBean serverMemory = ManagementFactory.newPlatformMXBeanProxy(connection, ManagementFactory.MEMORY_MXBEAN_NAME, MemoryMXBean.class);
+            List<GarbageCollectorMXBean> serverGcs = ManagementFactory.getPlatformMXBeans(connection, GarbageCollectorMXBean.class);
+            long gcCountBefore = gcCount(serverGcs);
+            long gcTimeBefore = gcTime(serverGcs);
+
+            Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+            Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+            endpoints.forEach(endpoint -> {
+                latencies.put(endpoint, new LatencyHistogram());
+                errors.put(endpoint, new AtomicLong());
+            });
+
+            // Progress is published by a client straight to the broker topic; the server fans it out to every subscriber
+            ScheduledExecutorService progressTicker = Executors.newSingleThreadScheduledExecutor();
+            AtomicInteger progress = new AtomicInteger();
+            StompSession publisher = stompLoad.sessions.isEmpty() ? null : stompLoad.sessions.get(0);
+            if (publisher != null) {
+                progressTicker.scheduleAtFixedRate(() -> publisher.send("/topic/progress",
+                        String.valueOf(progress.incrementAndGet() % 101).getBytes(StandardCharsets.UTF_8)), 0, 500, TimeUnit.MILLISECONDS);
+            }
+
+            long peakHeap = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+            ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+            for (int i = 0; i < CONCURRENCY; i++) {
+                workers.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        String endpoint = pick(endpoints, weights, random.nextInt(totalWeight));
+                        long start = System.nanoTime();
+                        try {
+                            int status = send(endpoint);
+                            if (status >= 400) {
+                                errors.get(endpoint).incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.get(endpoint).incrementAndGet();
+                        }
+                        latencies.get(endpoint).record(System.nanoTime() - start);
+                    }
+                });
+            }
+            workers.shutdown();
+            while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                peakHeap = Math.max(peakHeap, serverMemory.getHeapMemoryUsage().getUsed());
+            }
+            progressTicker.shutdownNow();
+
+            report(endpoints, latencies, errors, stompLoad, peakHeap, gcCount(serverGcs) - gcCountBefore, gcTime(serverGcs) - gcTimeBefore);
+            stompLoad.sessions.forEach(StompSession::disconnect);
+
+            assertTrue(latencies.values().stream().mapToLong(LatencyHistogram::count).sum() > 0, "No requests were completed");
+        }
+    }
+
+    // Runs the application from the main classpath (without test classes) in a separate JVM with JMX on localhost.
+    // Surefire launches tests through a manifest-only jar, so the real classpath comes from its own property.
+    private void startServer(int jmxPort) throws Exception {
+        port = freePort();
+        String testClasspath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        String classpath = Arrays.stream(testClasspath.split(File.pathSeparator))
+                .filter(entry -> !entry.endsWith("test-classes"))
+                .collect(Collectors.joining(File.pathSeparator));
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(SERVER_JVM_ARGS.trim().split("\\s+")));
+        command.addAll(List.of(
+                "-Dcom.sun.management.jmxremote.port=" + jmxPort,
+                "-Dcom.sun.management.jmxremote.rmi.port=" + jmxPort,
+                "-Dcom.sun.management.jmxremote.authenticate=false",
+                "-Dcom.sun.management.jmxremote.ssl=false",
+                "-Djava.rmi.server.hostname=localhost",
+                "-cp", classpath,
+                JavaBackendApplication.class.getName(),
+                "--server.port=" + port,
+                "--spring.data.mongodb.uri=" + mongo.getReplicaSetUrl(DATABASE),
+                "--spring.data.mongodb.database=" + DATABASE,
+                "--api.key=loadtest",
+                "--app.security.issuerSecretKey=SAAQCAIBAEAQCAIBAEAQCAIBAEAQCAIBAEAQCAIBAEAQCAIBAEAQC5MY",
+                "--app.ratelimit.enabled=false",
+                "--mail.username=loadtest",
+                "--mail.password=loadtest"));
+        command.removeIf(String::isEmpty);
+
+        File log = new File("target/loadtest-server.log");
+        server = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+        while (System.nanoTime() < deadline) {
+            if (!server.isAlive()) {
+                throw new IllegalStateException("Server exited during startup, see " + log.getAbsolutePath());
+            }
+            try {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/health-check")).GET().build();
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(200);
+        }
+        throw new IllegalStateException("Server did not start within 120s, see " + log.getAbsolutePath());
+    }
+
+    private void seed() {
+        try (MongoClient client = MongoClients.create(mongo.getReplicaSetUrl(DATABASE))) {
+            MongoTemplate mongoTemplate = new MongoTemplate(client, DATABASE);
+            mongoTemplate.dropCollection(Proposal.class);
+            mongoTemplate.dropCollection(ProposalScore.class);
+            mongoTemplate.dropCollection(PhaseState.class);
+
+            List<Proposal> proposals = new ArrayList<>();
+            for (int i = 0; i < PROPOSALS; i++) {
+                proposals.add(syntheticProposal(i));
+            }
+            proposals = new ArrayList<>(mongoTemplate.insertAll(proposals));
+
+            Random random = new Random(7);
+            List<ProposalScore> scores = new ArrayList<>();
+            for (int i = 0; i < proposals.size(); i++) {
+                Score score = new Score();
+                score.setClarity(random.nextInt(100) + 1);
+                score.setFeasibility(random.nextInt(100) + 1);
+                score.setImpact(random.nextInt(100) + 1);
+                score.setInnovation(random.nextInt(100) + 1);
+                score.setTotal(random.nextInt(100) + 1);
+
+                ProposalScore proposalScore = new ProposalScore();
+                proposalScore.setProposalId(proposals.get(i).getId());
+                proposalScore.setScore(score);
+                proposalScore.setEvaluatedAt(Instant.now());
+                proposalScore.setRank(i + 1);
+                scores.add(proposalScore);
+            }
+            mongoTemplate.insertAll(scores);
+            mongoTemplate.insert(new PhaseState(Phases.Voting, Instant.now()));
+        }
+    }
+
+    private Proposal syntheticProposal(int i) {
+        Proposal proposal = new Proposal();
+        proposal.setName("Applicant " + i);
+        proposal.setEmailId("applicant" + i + "@example.com");
+        proposal.setLinks("https://example.com/" + i);
+        proposal.setProjectTitle("Project " + i + " " + UUID.randomUUID());
+        proposal.setProjectDescription(("Synthetic description for project " + i + ". ").repeat(20));
+        proposal.setBrief_summary("Summary of project " + i);
+        proposal.setPrimaryGoal("Goal " + i);
+        proposal.setSpecificObjective("Objective " + i);
+        proposal.setBudget(String.valueOf(1000 + i));
+        proposal.setLongTermPlan("Long term plan " + i);
+        proposal.setFutureFundingPlans("Funding plan " + i);
+        proposal.setStellarWalletAddress("GAAQEAYEAEBAGBABAIBQIAICAMCACAQDAQAQEAYEAEBAGBABAIBQJTGM");
+        proposal.setSubmittedAt(Instant.now());
+        proposal.setStatus("Submitted");
+        return proposal;
+    }
+
+    private int send(String endpoint) throws Exception {
+        String base = "http://localhost:" + port;
+        HttpRequest.Builder request = switch (endpoint) {
+            case "allproposals" -> HttpRequest.newBuilder(URI.create(base + "/proposals/allproposals")).GET();
+            case "rankings" -> HttpRequest.newBuilder(URI.create(base + "/evaluation/rankings/top?limit=10")).GET();
+            case "phase" -> HttpRequest.newBuilder(URI.create(base + "/phase/current-phase")).GET();
+            case "submit" -> HttpRequest.newBuilder(URI.create(base + "/proposals/submit"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(submitBody()));
+            default -> throw new IllegalArgumentException("Unknown endpoint in loadtest.mix: " + endpoint);
+        };
+        return httpClient.send(request.header("Accept-Encoding", "gzip").timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private String submitBody() {
+        String id = UUID.randomUUID().toString();
+        return "{\"name\":\"Load " + id + "\",\"emailId\":\"load@example.com\",\"links\":\"https://example.com\","
+                + "\"projectTitle\":\"Load test " + id + "\",\"projectDescription\":\"Generated by the load test " + id + "\","
+                + "\"brief_summary\":\"Load summary\",\"primaryGoal\":\"Goal\",\"specificObjective\":\"Objective\","
+                + "\"budget\":\"1000\",\"longTermPlan\":\"Plan\",\"futureFundingPlans\":\"Funding\","
+                + "\"stellarWalletAddress\":\"GAAQEAYEAEBAGBABAIBQIAICAMCACAQDAQAQEAYEAEBAGBABAIBQJTGM\"}";
+    }
+
+    private String pick(List<String> endpoints, List<Integer> weights, int roll) {
+        for (int i = 0; i < endpoints.size(); i++) {
+            roll -= weights.get(i);
+            if (roll < 0) {
+                return endpoints.get(i);
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    private StompLoad connectSubscribers() throws InterruptedException {
+        WebSocketStompClient stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        StompLoad load = new StompLoad();
+        CountDownLatch connected = new CountDownLatch(SUBSCRIBERS);
+
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            stompClient.connectAsync("ws://localhost:" + port + "/ws-progress", new StompSessionHandlerAdapter() {
+                @Override
+                public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+                    session.subscribe("/topic/progress", new StompFrameHandler() {
+                        @Override
+                        public Type getPayloadType(StompHeaders headers) {
+                            return byte[].class;
+                        }
+
+                        @Override
+                        public void handleFrame(StompHeaders headers, Object payload) {
+                            load.messages.incrementAndGet();
+                        }
+                    });
+                    load.sessions.add(session);
+                    connected.countDown();
+                }
+
+                @Override
+                public void handleTransportError(StompSession session, Throwable exception) {
+                    load.failures.incrementAndGet();
+                    connected.countDown();
+                }
+            });
+        }
+        connected.await(30, TimeUnit.SECONDS);
+        return load;
+    }
+
+    private void report(List<String> endpoints, Map<String, LatencyHistogram> latencies, Map<String, AtomicLong> errors,
+                        StompLoad stompLoad, long peakHeap, long gcCount, long gcTimeMs) {
+        StringBuilder sb = new StringBuilder("\n==== Voting-day load test: ")
+                .append(PROPOSALS).append(" proposals, ").append(CONCURRENCY).append(" clients, ")
+                .append(DURATION_SECONDS).append("s ====\n")
+                .append(String.format("%-14s %9s %8s %10s %10s %10s %10s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms"));
+
+        for (String endpoint : endpoints) {
+            LatencyHistogram histogram = latencies.get(endpoint);
+            sb.append(String.format("%-14s %9d %8d %10.1f %10.2f %10.2f %10.2f%n", endpoint, histogram.count(), errors.get(endpoint).get(),
+                    (double) histogram.count() / DURATION_SECONDS, histogram.percentileMillis(0.50), histogram.percentileMillis(0.99),
+                    histogram.percentileMillis(0.999)));
+        }
+
+        sb.append(String.format("STOMP subscribers: %d connected, %d failed, %d progress messages received%n",
+                stompLoad.sessions.size(), stompLoad.failures.get(), stompLoad.messages.get()));
+        sb.append(String.format("Server heap: peak used %d MB; server GC: %d collections, %d ms total%n", peakHeap / (1024 * 1024), gcCount, gcTimeMs));
+        System.out.println(sb);
+    }
+
+    private long gcCount(List<GarbageCollectorMXBean> gcs) {
+        return gcs.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private long gcTime(List<GarbageCollectorMXBean> gcs) {
+        return gcs.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // Log-linear histogram over microseconds: exact below 16 us, then 16 buckets per power of two (~6% error).
+    // Fixed size, so memory stays flat however many requests the run makes.
+    private static class LatencyHistogram {
+        private static final int SUB_BUCKETS = 16;
+        private static final int BUCKETS = SUB_BUCKETS + (63 - 4) * SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+
+        void record(long nanos) {
+            buckets.incrementAndGet(index(Math.max(0, nanos / 1000)));
+            count.incrementAndGet();
+        }
+
+        long count() {
+            return count.get();
+        }
+
+        double percentileMillis(double p) {
+            long total = count.get();
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(p * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return lowerBound(i) / 1000d;
+                }
+            }
+            return lowerBound(BUCKETS - 1) / 1000d;
+        }
+
+        private static int index(long micros) {
+            if (micros < SUB_BUCKETS) {
+                return (int) micros;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            int sub = (int) ((micros >> (exponent - 4)) & (SUB_BUCKETS - 1));
+            return SUB_BUCKETS + (exponent - 4) * SUB_BUCKETS + sub;
+        }
+
+        private static long lowerBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + 4;
+            int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+            return (long) (SUB_BUCKETS + sub) << (exponent - 4);
+        }
+    }
+
+    private static class StompLoad {
+        private final List<StompSession> sessions = new CopyOnWriteArrayList<>();
+        private final AtomicLong messages = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+    }
+}
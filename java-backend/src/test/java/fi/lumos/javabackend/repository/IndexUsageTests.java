@@ -0,0 +1,203 @@
+package fi.lumos.javabackend.repository;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import fi.lumos.javabackend.entity.PhaseState;
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.entity.ProposalScore;
+import fi.lumos.javabackend.enums.Phases;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Explains the queries the repositories actually send (captured with a driver CommandListener) against a
+// throwaway Mongo container and checks that the winning plan is an index scan. Skipped without Docker.
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.data.mongodb.database=lumos_indextest",
+        "api.key=indextest",
+        "app.security.issuerSecretKey=SAAQCAIBAEAQCAIBAEAQCAIBAEAQCAIBAEAQCAIBAEAQCAIBAEAQC5MY",
+        "mail.username=indextest",
+        "mail.password=indextest"
+})
+class IndexUsageTests {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    private static final Set<String> QUERY_COMMANDS = Set.of("find", "aggregate", "count");
+    private static final Set<String> INDEX_STAGES = Set.of("IXSCAN", "COUNT_SCAN", "DISTINCT_SCAN");
+
+    private static final List<BsonDocument> captured = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class CommandCapture {
+        @Bean
+        MongoClientSettingsBuilderCustomizer captureQueryCommands() {
+            return builder -> builder.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if (QUERY_COMMANDS.contains(event.getCommandName())) {
+                        captured.add(event.getCommand().clone());
+                    }
+                }
+            });
+        }
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private MongoMappingContext mappingContext;
+    @Autowired
+    private ProposalRepository proposalRepository;
+    @Autowired
+    private ProposalScoreRepository proposalScoreRepository;
+    @Autowired
+    private PhaseShiftTrackingRepository phaseShiftTrackingRepository;
+
+    @BeforeEach
+    void seed() {
+        mongoTemplate.dropCollection(Proposal.class);
+        mongoTemplate.dropCollection(ProposalScore.class);
+        mongoTemplate.dropCollection(PhaseState.class);
+
+        Instant now = Instant.now();
+        List<Proposal> proposals = new ArrayList<>();
+        List<ProposalScore> scores = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Proposal proposal = new Proposal();
+            proposal.setId("p" + i);
+            proposal.setStatus(i % 2 == 0 ? "Submitted" : "Rejected");
+            proposal.setSubmittedAt(now.minus(i, ChronoUnit.HOURS));
+            proposals.add(proposal);
+
+            ProposalScore score = new ProposalScore();
+            score.setProposalId(proposal.getId());
+            score.setRank(i + 1);
+            scores.add(score);
+        }
+        mongoTemplate.insertAll(proposals);
+        mongoTemplate.insertAll(scores);
+        mongoTemplate.insert(new PhaseState(Phases.Submission, now));
+        ensureIndexes();
+
+        captured.clear();
+    }
+
+    @Test
+    void proposalsByStatusAndTimeRangeUseIndexForPageAndCount() {
+        Instant to = Instant.now();
+        Instant from = to.minus(30, ChronoUnit.DAYS);
+        // Same page request ProposalService.getProposalsByStatus builds
+        Page<Proposal> page = proposalRepository.findByStatusAndSubmittedAtBetween("Submitted", from, to,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "submittedAt")));
+
+        // More matches than the page size, so Spring Data also issued the count query
+        assertEquals(20, page.getTotalElements());
+        List<BsonDocument> commands = commandsOn("proposal_submissions");
+        assertTrue(commands.stream().anyMatch(command -> command.containsKey("find")), "No find captured: " + commands);
+        assertTrue(commands.stream().anyMatch(command -> !command.containsKey("find")), "No count captured: " + commands);
+        commands.forEach(this::assertIndexScan);
+    }
+
+    @Test
+    void latestPhaseUsesIndex() {
+        phaseShiftTrackingRepository.findTopByOrderByUpdatedAtDesc();
+
+        commandsOn("Phase_Tracking").forEach(this::assertIndexScan);
+    }
+
+    @Test
+    void scoresOrderedByRankUseIndex() {
+        proposalScoreRepository.findAllByOrderByRankAsc(PageRequest.of(0, 10));
+
+        commandsOn("proposal_scores").forEach(this::assertIndexScan);
+    }
+
+    @Test
+    void scoresByProposalIdUseIndex() {
+        proposalScoreRepository.findByProposalIdIn(List.of("p1", "p2"));
+
+        commandsOn("proposal_scores").forEach(this::assertIndexScan);
+    }
+
+    private void ensureIndexes() {
+        // auto-index-creation only runs when the mapping context first sees an entity; recreate after the drop
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (Class<?> entity : List.of(Proposal.class, ProposalScore.class, PhaseState.class)) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            resolver.resolveIndexFor(entity).forEach(indexOps::ensureIndex);
+        }
+    }
+
+    private List<BsonDocument> commandsOn(String collection) {
+        List<BsonDocument> commands = captured.stream()
+                .filter(command -> QUERY_COMMANDS.stream().anyMatch(name ->
+                        command.containsKey(name) && collection.equals(command.get(name).asString().getValue())))
+                .toList();
+        assertFalse(commands.isEmpty(), "No query captured on " + collection);
+        return commands;
+    }
+
+    private void assertIndexScan(BsonDocument command) {
+        BsonDocument query = command.clone();
+        // Session and routing fields belong to the outer explain command, not the explained one
+        query.keySet().removeIf(key -> key.startsWith("$") || key.equals("lsid") || key.equals("txnNumber"));
+        Document explain = mongoTemplate.getDb().runCommand(new Document("explain", query).append("verbosity", "queryPlanner"));
+
+        List<String> stages = new ArrayList<>();
+        collectWinningStages(explain, false, stages);
+
+        assertTrue(stages.stream().anyMatch(INDEX_STAGES::contains), "Query did not use an index: " + query + " -> " + stages);
+        assertFalse(stages.contains("COLLSCAN"), "Query fell back to a collection scan: " + query + " -> " + stages);
+    }
+
+    // Aggregations nest the plan under $cursor on some servers, so look for winningPlan at any depth
+    private void collectWinningStages(Object node, boolean inWinningPlan, List<String> stages) {
+        if (node instanceof Map<?, ?> map) {
+            Object stage = map.get("stage");
+            if (inWinningPlan && stage != null) {
+                stages.add(stage.toString());
+            }
+            map.forEach((key, value) -> {
+                if (!"rejectedPlans".equals(key)) {
+                    collectWinningStages(value, inWinningPlan || "winningPlan".equals(key), stages);
+                }
+            });
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectWinningStages(value, inWinningPlan, stages));
+        }
+    }
+}
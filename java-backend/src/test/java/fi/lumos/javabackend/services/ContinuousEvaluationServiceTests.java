@@ -0,0 +1,153 @@
+package fi.lumos.javabackend.services;
+
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.entity.ProposalScore;
+import fi.lumos.javabackend.entity.Score;
+import fi.lumos.javabackend.repository.ProposalScoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs ContinuousEvaluationService against an in-memory score store and a GroqEvaluation that records
+// what it was asked to score; flushes run inline so every assertion sees the finished flush
+class ContinuousEvaluationServiceTests {
+
+    private static final long WINDOW_MS = 60_000;
+
+    private final Map<String, ProposalScore> scores = new ConcurrentHashMap<>();
+    private final List<List<String>> evaluatedBatches = new ArrayList<>();
+    private int rankings;
+    private ContinuousEvaluationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ContinuousEvaluationService();
+        ReflectionTestUtils.setField(service, "groqEvaluation", new RecordingGroqEvaluation());
+        ReflectionTestUtils.setField(service, "proposalScoreRepository", scoreRepository());
+        ReflectionTestUtils.setField(service, "evaluationExecutor", new TaskExecutorAdapter(Runnable::run));
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "batchSize", 3);
+        ReflectionTestUtils.setField(service, "flushWindowMs", WINDOW_MS);
+    }
+
+    @Test
+    void fullBatchFlushesBeforeTheWindowAndLeavesTheRemainderQueued() {
+        for (int i = 1; i <= 4; i++) {
+            service.enqueue(proposal("p" + i));
+        }
+
+        service.flushIfDue();
+
+        assertEquals(List.of(List.of("p1", "p2", "p3")), evaluatedBatches);
+        assertEquals(1, rankings);
+        // p1 is scored now and p4 is still queued for the next flush
+        assertEquals(List.of("other"), ids(service.withoutScores(List.of(proposal("p1"), proposal("p4"), proposal("other")))));
+    }
+
+    @Test
+    void partialBatchWaitsForTheFlushWindow() {
+        service.enqueue(proposal("p1"));
+        service.enqueue(proposal("p2"));
+
+        service.flushIfDue();
+        assertTrue(evaluatedBatches.isEmpty(), "Nothing should be sent before the window has passed");
+
+        ReflectionTestUtils.setField(service, "lastFlush", System.currentTimeMillis() - WINDOW_MS - 1);
+        service.flushIfDue();
+
+        assertEquals(List.of(List.of("p1", "p2")), evaluatedBatches);
+        assertEquals(1, rankings);
+    }
+
+    @Test
+    void withoutScoresSkipsScoredAndInFlightProposals() {
+        scores.put("scored", score("scored", 70));
+        service.enqueue(proposal("queued"));
+
+        List<Proposal> all = List.of(proposal("scored"), proposal("queued"), proposal("fresh"));
+        assertEquals(List.of("fresh"), ids(service.withoutScores(all)));
+
+        service.flushRemaining();
+
+        // Once flushed the proposal is scored rather than in flight, and is still left out
+        assertEquals(List.of(List.of("queued")), evaluatedBatches);
+        assertEquals(List.of("fresh"), ids(service.withoutScores(all)));
+    }
+
+    @Test
+    void duplicateOfAnEarlierMicroBatchReusesItsScore() {
+        scores.put("original", score("original", 82));
+        Proposal copy = proposal("copy");
+        copy.setDuplicateOf("original");
+        service.enqueue(copy);
+        service.enqueue(proposal("new"));
+
+        service.flushRemaining();
+
+        assertEquals(List.of(List.of("new")), evaluatedBatches);
+        ProposalScore reused = scores.get("copy");
+        assertEquals("original", reused.getDuplicateOf());
+        assertEquals(82, reused.getScore().getTotal());
+    }
+
+    private class RecordingGroqEvaluation extends GroqEvaluation {
+        @Override
+        public void evaluateBatch(List<Proposal> proposals) {
+            if (proposals.isEmpty()) {
+                return;
+            }
+            evaluatedBatches.add(ids(proposals));
+            proposals.forEach(p -> scores.put(p.getId(), score(p.getId(), 50)));
+        }
+
+        @Override
+        public void rankProposals() {
+            rankings++;
+        }
+    }
+
+    // Only the two calls the service makes are implemented
+    @SuppressWarnings("unchecked")
+    private ProposalScoreRepository scoreRepository() {
+        return (ProposalScoreRepository) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ProposalScoreRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByProposalIdIn" -> ((Collection<String>) args[0]).stream()
+                            .filter(scores::containsKey).map(scores::get).toList();
+                    case "upsertAll" -> {
+                        ((List<ProposalScore>) args[0]).forEach(s -> scores.put(s.getProposalId(), s));
+                        yield null;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static List<String> ids(List<Proposal> proposals) {
+        return proposals.stream().map(Proposal::getId).toList();
+    }
+
+    private static Proposal proposal(String id) {
+        Proposal proposal = new Proposal();
+        proposal.setId(id);
+        return proposal;
+    }
+
+    private static ProposalScore score(String proposalId, int total) {
+        Score score = new Score();
+        score.setTotal(total);
+        ProposalScore proposalScore = new ProposalScore();
+        proposalScore.setProposalId(proposalId);
+        proposalScore.setScore(score);
+        return proposalScore;
+    }
+}
@@ -0,0 +1,160 @@
+package fi.lumos.javabackend.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.entity.ProposalScore;
+import fi.lumos.javabackend.utilites.LatencyWindow;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Drives GroqAPIClient against a local stub whose responses can be delayed per request
+class GroqAPIClientHedgingTests {
+
+    private static final long FAST_MS = 20;
+    private static final long SLOW_MS = 10_000;
+    private static final int MIN_SAMPLES = 5;
+
+    private HttpServer stub;
+    private ExecutorService stubExecutor;
+    private final Queue<Long> delays = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch aborted = new CountDownLatch(1);
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.createContext("/chat", this::respond);
+        stubExecutor = Executors.newCachedThreadPool();
+        stub.setExecutor(stubExecutor);
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAndTheLoserCancelled() throws Exception {
+        GroqAPIClient client = client(0.5);
+        warmUp(client);
+
+        delays.add(SLOW_MS);
+        long start = System.nanoTime();
+        List<ProposalScore> scores = client.sendBatch(batch());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(1, scores.size());
+        assertEquals(MIN_SAMPLES + 2, requests.get(), "Expected the primary and one hedge");
+        assertTrue(elapsedMs < SLOW_MS / 2, "Hedge should have won, took " + elapsedMs + " ms");
+        assertTrue(aborted.await(5, TimeUnit.SECONDS), "Slow primary was not cancelled");
+        LatencyWindow latencies = (LatencyWindow) ReflectionTestUtils.getField(client, "latencies");
+        assertEquals(MIN_SAMPLES + 2, latencies.size(), "Both the hedge and the cancelled primary should be recorded");
+    }
+
+    // Headers arrive at once but the body stalls, which HttpRequest.timeout alone would wait out
+    @Test
+    void stalledBodyTimesOut() {
+        GroqAPIClient client = client(0);
+        ReflectionTestUtils.setField(client, "hedgingEnabled", false);
+        ReflectionTestUtils.setField(client, "requestTimeoutSeconds", 1L);
+
+        delays.add(SLOW_MS);
+        long start = System.nanoTime();
+        List<ProposalScore> scores = client.sendBatch(batch());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(scores.isEmpty());
+        assertTrue(elapsedMs < SLOW_MS / 2, "Request should have timed out, took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void zeroMaxRatioNeverHedges() {
+        GroqAPIClient client = client(0);
+        warmUp(client);
+
+        delays.add(500L);
+        List<ProposalScore> scores = client.sendBatch(batch());
+
+        assertEquals(1, scores.size());
+        assertEquals(MIN_SAMPLES + 1, requests.get(), "No hedge should have been sent");
+    }
+
+    private GroqAPIClient client(double maxRatio) {
+        GroqAPIClient client = new GroqAPIClient(100, maxRatio);
+        ReflectionTestUtils.setField(client, "groqUrl", "http://localhost:" + stub.getAddress().getPort() + "/chat");
+        ReflectionTestUtils.setField(client, "groqApiKey", "test");
+        ReflectionTestUtils.setField(client, "requestTimeoutSeconds", 30L);
+        ReflectionTestUtils.setField(client, "hedgingEnabled", true);
+        ReflectionTestUtils.setField(client, "hedgePercentile", 0.95);
+        ReflectionTestUtils.setField(client, "hedgeMinDelayMs", 200L);
+        ReflectionTestUtils.setField(client, "hedgeMinSamples", MIN_SAMPLES);
+        return client;
+    }
+
+    // Fills the latency window with fast calls so the hedge delay is the configured minimum
+    private void warmUp(GroqAPIClient client) {
+        for (int i = 0; i < MIN_SAMPLES; i++) {
+            assertEquals(1, client.sendBatch(batch()).size());
+        }
+    }
+
+    private List<Proposal> batch() {
+        Proposal proposal = new Proposal();
+        proposal.setId("p1");
+        proposal.setProjectTitle("Solar kiosks");
+        return List.of(proposal);
+    }
+
+    // Slow responses trickle whitespace so a client that hangs up is noticed as a failed write
+    private void respond(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        Long delay = delays.poll();
+        long delayMs = delay == null ? FAST_MS : delay;
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (long waited = 0; waited < delayMs; waited += 10) {
+                Thread.sleep(10);
+                out.write(' ');
+                out.flush();
+            }
+            out.write(body().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            aborted.countDown();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String body() {
+        JSONObject score = new JSONObject().put("clarity", 70).put("feasibility", 60).put("impact", 80)
+                .put("innovation", 50).put("total", 65);
+        String content = "```" + new JSONArray().put(new JSONObject().put("proposalId", "p1").put("score", score)) + "```";
+        return new JSONObject().put("choices", new JSONArray().put(new JSONObject()
+                .put("message", new JSONObject().put("content", content)))).toString();
+    }
+}
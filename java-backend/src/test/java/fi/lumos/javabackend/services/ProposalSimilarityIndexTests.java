@@ -0,0 +1,144 @@
+package fi.lumos.javabackend.services;
+
+import fi.lumos.javabackend.entity.Proposal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProposalSimilarityIndexTests {
+
+    private static final String[] VOCABULARY = ("stellar wallet grant community education solar water farm market "
+            + "school health data open source network payment mobile rural youth climate energy local training "
+            + "platform research tool library transparent ledger donor impact village cooperative savings loan "
+            + "women digital literacy clinic supply chain recycling waste transport bridge").split(" ");
+
+    private ProposalSimilarityIndex index;
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProposalSimilarityIndex();
+        ReflectionTestUtils.setField(index, "threshold", 0.8);
+        random = new Random(7);
+    }
+
+    @Test
+    void identicalTextMatchesOriginal() {
+        Proposal original = proposal("a", text(120));
+        index.add(original);
+
+        assertEquals(Optional.of("a"), index.findRepresentative(proposal("b", original.getProjectDescription())));
+    }
+
+    @Test
+    void lightlyEditedTextMatchesOriginal() {
+        Proposal original = proposal("a", text(120));
+        index.add(original);
+
+        String[] words = original.getProjectDescription().split(" ");
+        words[30] = "blockchain";
+        words[90] = "kiosk";
+
+        assertEquals(Optional.of("a"), index.findRepresentative(proposal("b", String.join(" ", words))));
+    }
+
+    @Test
+    void unrelatedTextDoesNotMatch() {
+        index.add(proposal("a", text(120)));
+
+        assertEquals(Optional.empty(), index.findRepresentative(proposal("b", text(120))));
+    }
+
+    @Test
+    void duplicatesPointAtTheClusterRepresentative() {
+        Proposal original = proposal("a", text(120));
+        Proposal copy = proposal("b", original.getProjectDescription());
+        copy.setDuplicateOf("a");
+        index.add(original);
+        index.add(copy);
+
+        assertEquals(Optional.of("a"), index.findRepresentative(proposal("c", original.getProjectDescription())));
+    }
+
+    @Test
+    void blankAndShortTextIsNeitherIndexedNorMatched() {
+        index.add(proposal("blank", ""));
+        index.add(proposal("short", "solar farm"));
+
+        assertEquals(Optional.empty(), index.findRepresentative(proposal("other-blank", "")));
+        assertEquals(Optional.empty(), index.findRepresentative(proposal("other-short", "solar farm")));
+    }
+
+    @Test
+    void concurrentIdenticalSubmissionsFormOneCluster() throws Exception {
+        String description = text(120);
+        int submissions = 16;
+        List<Proposal> proposals = new ArrayList<>();
+        for (int i = 0; i < submissions; i++) {
+            proposals.add(proposal("p" + i, description));
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(submissions);
+        try {
+            List<Future<?>> registered = new ArrayList<>();
+            for (Proposal proposal : proposals) {
+                registered.add(executor.submit(() -> {
+                    start.await();
+                    return index.register(proposal);
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : registered) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Proposal> originals = proposals.stream().filter(p -> p.getDuplicateOf() == null).toList();
+        assertEquals(1, originals.size());
+        String representative = originals.get(0).getId();
+        assertTrue(proposals.stream().allMatch(p -> p.getDuplicateOf() == null || p.getDuplicateOf().equals(representative)));
+    }
+
+    @Test
+    void removedProposalNoLongerMatches() {
+        Proposal original = proposal("a", text(120));
+        index.register(original);
+        index.remove("a");
+
+        Proposal resubmitted = proposal("b", original.getProjectDescription());
+        assertEquals(Optional.empty(), index.register(resubmitted));
+        assertNull(resubmitted.getDuplicateOf());
+    }
+
+    private String text(int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sb.append(i == 0 ? "" : " ").append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+        }
+        return sb.toString();
+    }
+
+    private Proposal proposal(String id, String description) {
+        Proposal proposal = new Proposal();
+        proposal.setId(id);
+        proposal.setProjectDescription(description);
+        return proposal;
+    }
+}
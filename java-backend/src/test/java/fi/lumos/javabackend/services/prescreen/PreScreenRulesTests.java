@@ -0,0 +1,105 @@
+package fi.lumos.javabackend.services.prescreen;
+
+import fi.lumos.javabackend.entity.Proposal;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreScreenRulesTests {
+
+    static final String VALID_WALLET = "GAAQEAYEAEBAGBABAIBQIAICAMCACAQDAQAQEAYEAEBAGBABAIBQJTGM";
+
+    @Test
+    void requiredObjectivesNeedTitleGoalAndObjective() {
+        RequiredObjectivesRule rule = new RequiredObjectivesRule();
+
+        assertTrue(rule.check(validProposal()).isEmpty());
+        Proposal noTitle = validProposal();
+        noTitle.setProjectTitle(" ");
+        assertEquals(Optional.of("Missing project title"), rule.check(noTitle));
+        Proposal noObjective = validProposal();
+        noObjective.setSpecificObjective(null);
+        assertEquals(Optional.of("Missing primary goal or specific objective"), rule.check(noObjective));
+    }
+
+    @Test
+    void budgetMustBeAPositiveNumber() {
+        NumericBudgetRule rule = new NumericBudgetRule();
+
+        assertEquals(Optional.of("Missing budget"), rule.check(withBudget(null)));
+        assertEquals(Optional.of("Missing budget"), rule.check(withBudget("  ")));
+        assertEquals(Optional.of("Budget is not a number: $"), rule.check(withBudget("$")));
+        assertEquals(Optional.of("Budget is not a number: about 5k"), rule.check(withBudget("about 5k")));
+        assertEquals(Optional.of("Budget must be positive"), rule.check(withBudget("0")));
+        assertTrue(rule.check(withBudget("5,000 XLM")).isEmpty());
+        assertTrue(rule.check(withBudget("$5000")).isEmpty());
+        assertTrue(rule.check(withBudget("1250.50")).isEmpty());
+    }
+
+    @Test
+    void walletMustBeAValidStellarAccountId() {
+        StellarWalletRule rule = new StellarWalletRule();
+
+        assertTrue(rule.check(withWallet(VALID_WALLET)).isEmpty());
+        assertTrue(rule.check(withWallet(" " + VALID_WALLET + " ")).isEmpty());
+        assertEquals(Optional.of("Missing Stellar wallet address"), rule.check(withWallet("")));
+        // Last character changed, so the StrKey checksum no longer matches
+        assertEquals(Optional.of("Invalid Stellar wallet address"), rule.check(withWallet(VALID_WALLET.substring(0, 55) + "A")));
+        // A secret seed is a valid StrKey but not an account id
+        assertEquals(Optional.of("Invalid Stellar wallet address"),
+                rule.check(withWallet("SAAQCAIBAEAQCAIBAEAQCAIBAEAQCAIBAEAQCAIBAEAQCAIBAEAQC5MY")));
+    }
+
+    @Test
+    void descriptionNeedsTheMinimumWordCount() {
+        DescriptionLengthRule rule = new DescriptionLengthRule();
+        ReflectionTestUtils.setField(rule, "minWords", 20);
+
+        assertEquals(Optional.of("Project description has 19 words, at least 20 required"), rule.check(withDescription(words(19))));
+        assertTrue(rule.check(withDescription(words(20))).isEmpty());
+        assertTrue(rule.check(withDescription("  " + words(20).replace(" ", " \n ") + "  ")).isEmpty());
+        assertEquals(Optional.of("Project description has 0 words, at least 20 required"), rule.check(withDescription(" ")));
+    }
+
+    static Proposal validProposal() {
+        Proposal proposal = new Proposal();
+        proposal.setId("p1");
+        proposal.setProjectTitle("Solar kiosks");
+        proposal.setPrimaryGoal("Power village shops");
+        proposal.setSpecificObjective("Install 20 kiosks");
+        proposal.setBudget("5,000 XLM");
+        proposal.setStellarWalletAddress(VALID_WALLET);
+        proposal.setProjectDescription(words(25));
+        return proposal;
+    }
+
+    static String words(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "" : " ").append("word").append(i);
+        }
+        return sb.toString();
+    }
+
+    private Proposal withBudget(String budget) {
+        Proposal proposal = validProposal();
+        proposal.setBudget(budget);
+        return proposal;
+    }
+
+    private Proposal withWallet(String wallet) {
+        Proposal proposal = validProposal();
+        proposal.setStellarWalletAddress(wallet);
+        return proposal;
+    }
+
+    private Proposal withDescription(String description) {
+        Proposal proposal = validProposal();
+        proposal.setProjectDescription(description);
+        return proposal;
+    }
+}
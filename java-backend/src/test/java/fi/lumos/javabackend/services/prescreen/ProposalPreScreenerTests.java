@@ -0,0 +1,72 @@
+package fi.lumos.javabackend.services.prescreen;
+
+import fi.lumos.javabackend.entity.Proposal;
+import fi.lumos.javabackend.entity.ProposalScore;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProposalPreScreenerTests {
+
+    @Test
+    void splitsPassedAndRejectedProposals() {
+        ProposalPreScreener screener = screener(true);
+        Proposal valid = PreScreenRulesTests.validProposal();
+        Proposal noBudget = PreScreenRulesTests.validProposal();
+        noBudget.setId("p2");
+        noBudget.setBudget("");
+
+        PreScreenResult result = screener.screen(List.of(valid, noBudget));
+
+        assertEquals(List.of(valid), result.getPassed());
+        assertEquals(1, result.getRejected().size());
+        ProposalScore rejected = result.getRejected().get(0);
+        assertEquals("p2", rejected.getProposalId());
+        assertEquals("Missing budget", rejected.getRejectionReason());
+        assertEquals(0, rejected.getScore().getTotal());
+        assertNull(rejected.getDuplicateOf());
+    }
+
+    @Test
+    void reportsTheFirstFailingRuleInOrderRegardlessOfRegistrationOrder() {
+        ProposalPreScreener screener = screener(true);
+        Proposal everythingWrong = new Proposal();
+        everythingWrong.setId("p3");
+
+        PreScreenResult result = screener.screen(List.of(everythingWrong));
+
+        assertEquals("Missing project title", result.getRejected().get(0).getRejectionReason());
+    }
+
+    @Test
+    void passesEverythingWhenDisabled() {
+        ProposalPreScreener screener = screener(false);
+        Proposal empty = new Proposal();
+
+        PreScreenResult result = screener.screen(List.of(empty));
+
+        assertEquals(List.of(empty), result.getPassed());
+        assertTrue(result.getRejected().isEmpty());
+    }
+
+    // Registered in reverse and sorted the way Spring sorts an injected List, by @Order
+    private ProposalPreScreener screener(boolean enabled) {
+        DescriptionLengthRule descriptionRule = new DescriptionLengthRule();
+        ReflectionTestUtils.setField(descriptionRule, "minWords", 20);
+        List<PreScreenRule> rules = new ArrayList<>(List.of(descriptionRule, new StellarWalletRule(),
+                new NumericBudgetRule(), new RequiredObjectivesRule()));
+        AnnotationAwareOrderComparator.sort(rules);
+
+        ProposalPreScreener screener = new ProposalPreScreener();
+        ReflectionTestUtils.setField(screener, "rules", rules);
+        ReflectionTestUtils.setField(screener, "enabled", enabled);
+        return screener;
+    }
+}
@@ -0,0 +1,45 @@
+package fi.lumos.javabackend.utilites;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgeBudgetTests {
+
+    @Test
+    void budgetIsRestoredOnceHedgedCallsLeaveTheWindow() {
+        HedgeBudget budget = new HedgeBudget(10, 0.1);
+        long call = 0;
+        for (int i = 0; i < 10; i++) {
+            call = budget.recordCall();
+        }
+        assertTrue(budget.tryHedge(call));
+        assertFalse(budget.tryHedge(call));
+
+        for (int i = 0; i < 9; i++) {
+            call = budget.recordCall();
+            assertFalse(budget.tryHedge(call));
+        }
+        call = budget.recordCall();
+        assertTrue(budget.tryHedge(call));
+    }
+
+    @Test
+    void zeroRatioNeverHedges() {
+        HedgeBudget budget = new HedgeBudget(10, 0);
+        for (int i = 0; i < 20; i++) {
+            assertFalse(budget.tryHedge(budget.recordCall()));
+        }
+    }
+
+    @Test
+    void callsThatLeftTheWindowCannotHedge() {
+        HedgeBudget budget = new HedgeBudget(10, 1);
+        long old = budget.recordCall();
+        for (int i = 0; i < 10; i++) {
+            budget.recordCall();
+        }
+        assertFalse(budget.tryHedge(old));
+    }
+}